@@ -0,0 +1,173 @@
+package com.eazybytes.accounts.cache;
+
+import com.eazybytes.accounts.dto.CustomerCacheInvalidationDto;
+import com.eazybytes.accounts.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.eazybytes.accounts.constants.AccountsConstants.CUSTOMER_ACCOUNTS_CACHE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Read-through cache of {@link CustomerAccountsView}s by mobile number, and the invalidation
+ * entry point for it. Every write to a customer or account must go through here once the change
+ * is persisted. Write paths read from the database, never from here.
+ * <p>
+ * Evictions are applied locally after commit and broadcast on the
+ * {@code customerCacheInvalidation-out-0} binding so the other replicas drop their copies too.
+ * The broadcast is published from a background thread, so writes never wait on the broker.
+ * Staleness on a remote replica is bounded by broker delivery, and by the cache TTL if an
+ * event is ever lost.
+ */
+@Component
+public class CustomerAccountsCache {
+
+    private final Logger logger = getLogger(CustomerAccountsCache.class);
+    private final Cache cache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache;
+    private final CustomerRepository customerRepository;
+    private final StreamBridge streamBridge;
+    private final AtomicLong evictions = new AtomicLong();
+    // one thread keeps invalidations in order and off the request path
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("customer-cache-invalidation").daemon().factory());
+
+    @SuppressWarnings("unchecked")
+    public CustomerAccountsCache(CacheManager cacheManager, CustomerRepository customerRepository,
+                                 StreamBridge streamBridge) {
+        this.cache = cacheManager.getCache(CUSTOMER_ACCOUNTS_CACHE);
+        this.nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        this.customerRepository = customerRepository;
+        this.streamBridge = streamBridge;
+    }
+
+    /**
+     * Looks up the customer and its account, loading them with a single join query on a miss.
+     * Misses are not cached.
+     *
+     * @param mobileNumber the mobile number of the customer
+     * @return an immutable view of the customer and its account, if the customer exists
+     */
+    public Optional<CustomerAccountsView> findByMobileNumber(String mobileNumber) {
+        CustomerAccountsView cached = cache.get(mobileNumber, CustomerAccountsView.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = evictions.get();
+        Optional<CustomerAccountsView> loaded = customerRepository.findWithAccountsByMobileNumber(mobileNumber)
+                .map(row -> CustomerAccountsView.of(row.customer(), row.accounts()));
+        // a row read while an eviction ran may already be stale, so it must not outlive that eviction
+        if (loaded.isPresent() && evictions.get() == generation) {
+            cache.put(mobileNumber, loaded.get());
+            if (evictions.get() != generation) {
+                cache.evict(mobileNumber);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts the cached view for the given mobile numbers on this replica and
+     * publishes an invalidation event for the other replicas. When called inside a
+     * transaction this happens after commit, so readers cannot re-cache the old rows.
+     *
+     * @param mobileNumbers the mobile numbers whose entries are stale
+     */
+    public void evict(Collection<String> mobileNumbers) {
+        List<String> staleMobileNumbers = mobileNumbers.stream().filter(Objects::nonNull).distinct().toList();
+        if (!staleMobileNumbers.isEmpty()) {
+            afterCommit(new CustomerCacheInvalidationDto(staleMobileNumbers, List.of()));
+        }
+    }
+
+    /**
+     * Evicts the cached view for the given mobile number on every replica.
+     *
+     * @param mobileNumber the mobile number whose entry is stale
+     */
+    public void evict(String mobileNumber) {
+        if (mobileNumber != null) {
+            evict(List.of(mobileNumber));
+        }
+    }
+
+    /**
+     * Evicts the cached views owning the given account numbers on every replica. Each replica
+     * finds them in its own cache, so callers need not know the mobile numbers they are cached
+     * under, which may just have changed.
+     *
+     * @param accountNumbers the account numbers that were changed
+     */
+    public void evictByAccountNumbers(Collection<Long> accountNumbers) {
+        List<Long> staleAccountNumbers = accountNumbers.stream().filter(Objects::nonNull).distinct().toList();
+        if (!staleAccountNumbers.isEmpty()) {
+            afterCommit(new CustomerCacheInvalidationDto(List.of(), staleAccountNumbers));
+        }
+    }
+
+    /**
+     * Evicts the stale cached views on this replica only.
+     * Used when applying invalidation events received from other replicas.
+     *
+     * @param invalidation the mobile numbers and account numbers whose entries are stale
+     */
+    public void evictLocally(CustomerCacheInvalidationDto invalidation) {
+        evictions.incrementAndGet();
+        if (invalidation.mobileNumbers() != null) {
+            invalidation.mobileNumbers().forEach(cache::evict);
+        }
+        if (invalidation.accountNumbers() != null && !invalidation.accountNumbers().isEmpty()) {
+            Set<Long> accountNumbers = Set.copyOf(invalidation.accountNumbers());
+            // a scan of at most maximumSize entries, cheaper than a round trip to resolve the mobile numbers
+            nativeCache.asMap().values().removeIf(value -> value instanceof CustomerAccountsView view
+                    && accountNumbers.contains(view.accountNumber()));
+        }
+        logger.debug("Evicted customer accounts cache entries for {}", invalidation);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // let the invalidations already queued reach the broker
+        publisher.close();
+    }
+
+    private void afterCommit(CustomerCacheInvalidationDto invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(invalidation);
+                }
+            });
+        } else {
+            evictEverywhere(invalidation);
+        }
+    }
+
+    private void evictEverywhere(CustomerCacheInvalidationDto invalidation) {
+        evictLocally(invalidation);
+        publisher.execute(() -> {
+            try {
+                var result = streamBridge.send("customerCacheInvalidation-out-0", invalidation);
+                logger.debug("Is the customer cache invalidation successfully published ? : {}", result);
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to publish customer cache invalidation {}", invalidation, ex);
+            }
+        });
+    }
+}
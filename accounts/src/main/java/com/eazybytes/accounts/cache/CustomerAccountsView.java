@@ -0,0 +1,31 @@
+package com.eazybytes.accounts.cache;
+
+import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.Customer;
+
+/**
+ * Immutable copy of a customer and its account, as held in the customer accounts cache.
+ * Entities are never cached, so a cached value cannot be changed by one request and seen by another.
+ */
+public record CustomerAccountsView(
+        Long customerId,
+
+        String name,
+
+        String email,
+
+        String mobileNumber,
+
+        Long accountNumber,
+
+        String accountType,
+
+        String branchAddress
+) {
+
+    public static CustomerAccountsView of(Customer customer, Accounts accounts) {
+        return new CustomerAccountsView(customer.getCustomerId(), customer.getName(), customer.getEmail(),
+                customer.getMobileNumber(), accounts.getAccountNumber(), accounts.getAccountType(),
+                accounts.getBranchAddress());
+    }
+}
@@ -0,0 +1,22 @@
+package com.eazybytes.accounts.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class CustomerDetailsConfig {
+
+    /**
+     * Executor used to fan out the customer details lookups. The work is almost
+     * entirely blocking I/O (JPA and Feign), so virtual threads are a good fit.
+     *
+     * @return an executor that starts a new virtual thread per task
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService customerDetailsExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,37 @@
+package com.eazybytes.accounts.config;
+
+import com.eazybytes.accounts.constants.AccountsConstants;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "customer-details")
+public class CustomerDetailsProperties {
+
+    /**
+     * When true, the local customer/account lookup and the cards and loans calls
+     * run concurrently instead of one after the other.
+     */
+    private boolean parallel = true;
+
+    /**
+     * Deadline for every lookup of the concurrent aggregation and of each bulk batch. Downstream
+     * parts that are not ready when it passes are left empty in the response.
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+
+    /**
+     * Number of mobile numbers resolved per query and per bulk cards/loans call
+     * when fetching customer details in bulk. Cards and loans accept at most
+     * {@value AccountsConstants#MAX_DOWNSTREAM_BATCH_SIZE} per call.
+     */
+    @Min(1)
+    @Max(AccountsConstants.MAX_DOWNSTREAM_BATCH_SIZE)
+    private int batchSize = 500;
+}
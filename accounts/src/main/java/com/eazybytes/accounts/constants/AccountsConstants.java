@@ -15,6 +15,9 @@ public class AccountsConstants {
     public static final String STATUS_417 = "417";
     public static final String MESSAGE_417_UPDATE = "Update operation failed. Please try again or contact Dev team";
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
+    public static final String CUSTOMER_ACCOUNTS_CACHE = "customerAccounts";
+    public static final int MAX_BULK_MOBILE_NUMBERS = 10_000;
+    public static final int MAX_DOWNSTREAM_BATCH_SIZE = 500;
 //    public static final String  STATUS_500 = "500";
 //    public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 }
@@ -3,13 +3,16 @@ package com.eazybytes.accounts.controller;
 import com.eazybytes.accounts.dto.CustomerDetailsDto;
 import com.eazybytes.accounts.dto.ErrorResponseDto;
 import com.eazybytes.accounts.service.ICustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.eazybytes.accounts.constants.AccountsConstants.MAX_BULK_MOBILE_NUMBERS;
 
 @Tag(
         name = "Customer Rest Controller",
@@ -31,9 +43,11 @@ public class CustomerController {
     private final static Logger logger = LoggerFactory.getLogger(CustomerController.class);
 
     private final ICustomerService customerService;
+    private final ObjectMapper objectMapper;
 
-    public CustomerController(ICustomerService customerService) {
+    public CustomerController(ICustomerService customerService, ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
@@ -70,4 +84,74 @@ public class CustomerController {
                 .status(HttpStatus.OK)
                 .body(customerDetails);
     }
+
+    @Operation(
+            summary = "Fetch Customer Details In Bulk",
+            description = "API to fetch customer details for a list of up to " + MAX_BULK_MOBILE_NUMBERS +
+                    " mobile numbers. Results are streamed " +
+                    "back as newline-delimited JSON, one customer per line; unknown mobile numbers are skipped. " +
+                    "If a later batch fails, the stream ends with an ErrorResponse line"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Customer details streamed successfully"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping(value = "/fetchCustomerDetailsBatch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> fetchCustomerDetailsBatch(
+            @RequestHeader("eazybank-correlation-id")
+            String correlationId,
+
+            @RequestBody
+            @NotEmpty(message = "Mobile numbers cannot be empty.")
+            @Size(max = MAX_BULK_MOBILE_NUMBERS, message = "At most " + MAX_BULK_MOBILE_NUMBERS + " mobile numbers per request.")
+            List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile Number must be 10 digits") String> mobileNumbers,
+
+            WebRequest webRequest) {
+
+        logger.debug("fetchCustomerDetailsBatch method start for {} mobile numbers", mobileNumbers.size());
+        Stream<CustomerDetailsDto> customerDetails = customerService.fetchCustomerDetails(mobileNumbers, correlationId);
+        Iterator<CustomerDetailsDto> iterator = customerDetails.iterator();
+        try {
+            // resolve the first batch before the 200 is committed, so that its failure is a regular error response
+            iterator.hasNext();
+        } catch (RuntimeException ex) {
+            customerDetails.close();
+            throw ex;
+        }
+
+        String apiPath = webRequest.getDescription(false);
+        StreamingResponseBody body = outputStream -> {
+            try (customerDetails) {
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                    outputStream.flush();
+                }
+            } catch (RuntimeException ex) {
+                // the status is already sent: end the stream with an error record instead of silently truncating it
+                logger.error("fetchCustomerDetailsBatch failed after the response was committed", ex);
+                ErrorResponseDto errorResponseDto = new ErrorResponseDto(apiPath,
+                        HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), LocalDateTime.now());
+                outputStream.write(objectMapper.writeValueAsBytes(errorResponseDto));
+                outputStream.write('\n');
+                outputStream.flush();
+                return;
+            }
+            logger.debug("fetchCustomerDetailsBatch method end");
+        };
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -7,6 +7,7 @@ package com.eazybytes.accounts.dto;
  * @param name          the name of the account holder
  * @param email         the email address associated with the account
  * @param mobileNumber  the mobile number associated with the account
+ * @param eventId       the id of the event that produced the message, stable across redeliveries
  */
 public record AccountsMessageDto(
         Long accountNumber,
@@ -15,6 +16,8 @@ public record AccountsMessageDto(
 
         String email,
 
-        String mobileNumber
+        String mobileNumber,
+
+        Long eventId
 ) {
 }
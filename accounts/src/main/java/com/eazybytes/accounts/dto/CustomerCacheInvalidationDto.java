@@ -0,0 +1,16 @@
+package com.eazybytes.accounts.dto;
+
+import java.util.List;
+
+/**
+ * Event broadcast to every accounts replica when cached customer views become stale.
+ *
+ * @param mobileNumbers  the mobile numbers whose cached entries must be evicted
+ * @param accountNumbers the account numbers whose cached entries must be evicted, whatever mobile number they are cached under
+ */
+public record CustomerCacheInvalidationDto(
+        List<String> mobileNumbers,
+
+        List<Long> accountNumbers
+) {
+}
@@ -1,11 +1,14 @@
 package com.eazybytes.accounts.functions;
 
+import com.eazybytes.accounts.cache.CustomerAccountsCache;
+import com.eazybytes.accounts.dto.CustomerCacheInvalidationDto;
 import com.eazybytes.accounts.service.IAccountsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 @Configuration
@@ -13,11 +16,23 @@ public class AccountsFunctions {
 
     private final Logger logger = LoggerFactory.getLogger(AccountsFunctions.class);
 
+    /**
+     * Batch-mode consumer: each poll delivers up to max.poll.records account numbers,
+     * which are marked as communicated with a single UPDATE.
+     */
     @Bean
-    public Consumer<Long> updateCommunication(IAccountsService accountsService) {
-        return accountNumber -> {
-            logger.info("Updating Communication status for the account number : " + accountNumber.toString());
-            accountsService.updateCommunicationStatus(accountNumber);
+    public Consumer<List<Long>> updateCommunication(IAccountsService accountsService) {
+        return accountNumbers -> {
+            logger.info("Updating Communication status for {} account numbers", accountNumbers.size());
+            accountsService.updateCommunicationStatus(accountNumbers);
+        };
+    }
+
+    @Bean
+    public Consumer<CustomerCacheInvalidationDto> evictCustomerAccounts(CustomerAccountsCache customerAccountsCache) {
+        return invalidation -> {
+            logger.debug("Evicting customer accounts cache entries for : {}", invalidation);
+            customerAccountsCache.evictLocally(invalidation);
         };
     }
 }
@@ -0,0 +1,31 @@
+package com.eazybytes.accounts.generator;
+
+import com.eazybytes.idgenerator.BlockIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Number space of the account numbers handed out by the shared {@link BlockIdGenerator}.
+ * <p>
+ * Account numbers used to be drawn at random from [1000000000, 1900000000), and the
+ * accounts table stores them in an INT column, so new numbers are taken from the remaining
+ * 10-digit INT range [1900000000, 2147483647) and can never clash with existing rows.
+ */
+@Configuration
+public class AccountNumberGeneratorConfig {
+
+    private static final String BLOCK_NAME = "accounts";
+    private static final long FIRST_NUMBER = 1_900_000_000L;
+    private static final long CAPACITY = 247_483_647L;
+    // Coprime with CAPACITY, so (sequence * MULTIPLIER) % CAPACITY is a permutation
+    private static final long MULTIPLIER = 9_999_991L;
+
+    @Bean
+    public BlockIdGenerator accountNumberGenerator(DataSource dataSource,
+            @Value("${id-generator.block-size:100}") int blockSize) {
+        return new BlockIdGenerator(dataSource, BLOCK_NAME, FIRST_NUMBER, CAPACITY, MULTIPLIER, blockSize);
+    }
+}
@@ -1,5 +1,6 @@
 package com.eazybytes.accounts.mapper;
 
+import com.eazybytes.accounts.cache.CustomerAccountsView;
 import com.eazybytes.accounts.dto.AccountsDto;
 import com.eazybytes.accounts.entity.Accounts;
 
@@ -17,4 +18,11 @@ public class AccountsMapper {
         accounts.setBranchAddress(accountsDto.getBranchAddress());
         return accounts;
     }
+
+    public static AccountsDto mapToAccountsDto(CustomerAccountsView view, AccountsDto accountsDto) {
+        accountsDto.setAccountNumber(view.accountNumber());
+        accountsDto.setAccountType(view.accountType());
+        accountsDto.setBranchAddress(view.branchAddress());
+        return accountsDto;
+    }
 }
@@ -1,5 +1,6 @@
 package com.eazybytes.accounts.mapper;
 
+import com.eazybytes.accounts.cache.CustomerAccountsView;
 import com.eazybytes.accounts.dto.CustomerDetailsDto;
 import com.eazybytes.accounts.dto.CustomerDto;
 import com.eazybytes.accounts.entity.Customer;
@@ -25,4 +26,19 @@ public class CustomerMapper {
         customerDetailsDto.setMobileNumber(customer.getMobileNumber());
         return customerDetailsDto;
     }
+
+    public static CustomerDto mapToCustomerDto(CustomerAccountsView view, CustomerDto customerDto) {
+        customerDto.setName(view.name());
+        customerDto.setEmail(view.email());
+        customerDto.setMobileNumber(view.mobileNumber());
+        return customerDto;
+    }
+
+    public static CustomerDetailsDto mapToCustomerDetailsDto(CustomerAccountsView view,
+                                                             CustomerDetailsDto customerDetailsDto) {
+        customerDetailsDto.setName(view.name());
+        customerDetailsDto.setEmail(view.email());
+        customerDetailsDto.setMobileNumber(view.mobileNumber());
+        return customerDetailsDto;
+    }
 }
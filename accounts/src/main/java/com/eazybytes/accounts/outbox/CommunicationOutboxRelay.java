@@ -0,0 +1,102 @@
+package com.eazybytes.accounts.outbox;
+
+import com.eazybytes.accounts.dto.AccountsMessageDto;
+import com.eazybytes.accounts.entity.CommunicationOutbox;
+import com.eazybytes.accounts.repository.CommunicationOutboxRepository;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Publishes the communication requests recorded in the outbox by {@code createAccount}.
+ * <p>
+ * Rows are written in the same transaction as the customer and account, and are only deleted
+ * once the broker has accepted the message, so delivery is at-least-once and account creation
+ * never waits on the broker.
+ * <p>
+ * A batch is claimed for {@code claim-ttl-ms} in one short transaction and published with no
+ * transaction or row lock held, so a slow broker never keeps database connections or locks busy.
+ * Rows that could not be published are released again; the claim of a relay that died expires.
+ */
+@Component
+public class CommunicationOutboxRelay {
+
+    private final Logger logger = getLogger(CommunicationOutboxRelay.class);
+    private final CommunicationOutboxRepository communicationOutboxRepository;
+    private final StreamBridge streamBridge;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimTtl;
+
+    public CommunicationOutboxRelay(CommunicationOutboxRepository communicationOutboxRepository,
+                                    StreamBridge streamBridge,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${communication-outbox.batch-size:100}") int batchSize,
+                                    @Value("${communication-outbox.claim-ttl-ms:300000}") long claimTtlMs) {
+        this.communicationOutboxRepository = communicationOutboxRepository;
+        this.streamBridge = streamBridge;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimTtl = Duration.ofMillis(claimTtlMs);
+    }
+
+    @Scheduled(fixedDelayString = "${communication-outbox.poll-interval-ms:1000}")
+    public void relay() {
+        List<CommunicationOutbox> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        List<Long> unpublishedIds = new ArrayList<>();
+        for (CommunicationOutbox outbox : batch) {
+            if (!unpublishedIds.isEmpty() || !publish(outbox)) {
+                // keep ordering: retry this row and the rest on the next poll
+                unpublishedIds.add(outbox.getOutboxId());
+                continue;
+            }
+            publishedIds.add(outbox.getOutboxId());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            communicationOutboxRepository.deleteAllByIdInBatch(publishedIds);
+            if (!unpublishedIds.isEmpty()) {
+                communicationOutboxRepository.updateClaimedUntil(unpublishedIds, null);
+            }
+        });
+        logger.debug("Relayed {} of {} pending communication requests", publishedIds.size(), batch.size());
+    }
+
+    private List<CommunicationOutbox> claimNextBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CommunicationOutbox> batch = communicationOutboxRepository.lockNextBatch(now, batchSize);
+        if (!batch.isEmpty()) {
+            communicationOutboxRepository.updateClaimedUntil(
+                    batch.stream().map(CommunicationOutbox::getOutboxId).toList(), now.plus(claimTtl));
+        }
+        return batch;
+    }
+
+    private boolean publish(CommunicationOutbox outbox) {
+        var accountsMsgDto = new AccountsMessageDto(outbox.getAccountNumber(), outbox.getName(),
+                outbox.getEmail(), outbox.getMobileNumber(), outbox.getOutboxId());
+        try {
+            return streamBridge.send("sendCommunication-out-0", accountsMsgDto);
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to publish communication request for account number {}",
+                    outbox.getAccountNumber(), ex);
+            return false;
+        }
+    }
+}
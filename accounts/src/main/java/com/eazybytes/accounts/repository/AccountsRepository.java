@@ -4,8 +4,12 @@ import com.eazybytes.accounts.entity.Accounts;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +19,26 @@ public interface AccountsRepository extends JpaRepository<Accounts, Long> {
     @Transactional
     @Modifying
     void deleteByCustomerId(Long customerId);
+
+    /**
+     * Updates only the supplied account columns in a single statement; null arguments keep the current value.
+     *
+     * @return the number of matched rows, 0 if the account does not exist
+     */
+    @Modifying
+    @Query("UPDATE Accounts a SET a.accountType = COALESCE(:accountType, a.accountType), "
+            + "a.branchAddress = COALESCE(:branchAddress, a.branchAddress), "
+            + "a.updatedAt = :updatedAt, a.updatedBy = :updatedBy WHERE a.accountNumber = :accountNumber")
+    int updateAccountDetails(@Param("accountNumber") Long accountNumber,
+                             @Param("accountType") String accountType,
+                             @Param("branchAddress") String branchAddress,
+                             @Param("updatedAt") LocalDateTime updatedAt,
+                             @Param("updatedBy") String updatedBy);
+
+    @Modifying
+    @Query("UPDATE Accounts a SET a.communicationSw = true, a.updatedAt = :updatedAt, a.updatedBy = :updatedBy "
+            + "WHERE a.accountNumber IN :accountNumbers")
+    int updateCommunicationSwByAccountNumberIn(@Param("accountNumbers") Collection<Long> accountNumbers,
+                                               @Param("updatedAt") LocalDateTime updatedAt,
+                                               @Param("updatedBy") String updatedBy);
 }
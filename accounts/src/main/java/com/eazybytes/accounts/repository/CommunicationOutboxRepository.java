@@ -0,0 +1,33 @@
+package com.eazybytes.accounts.repository;
+
+import com.eazybytes.accounts.entity.CommunicationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommunicationOutboxRepository extends JpaRepository<CommunicationOutbox, Long> {
+
+    /**
+     * Locks the oldest pending outbox rows that are not claimed by a relay. Rows already locked by
+     * another replica's relay are skipped, so replicas drain the outbox in parallel.
+     */
+    @Query(value = "SELECT * FROM communication_outbox WHERE claimed_until IS NULL OR claimed_until < :now "
+            + "ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<CommunicationOutbox> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Claims or releases outbox rows; a claimed row is skipped by every relay until {@code claimedUntil}.
+     */
+    @Modifying
+    @Query("UPDATE CommunicationOutbox o SET o.claimedUntil = :claimedUntil WHERE o.outboxId IN :outboxIds")
+    int updateClaimedUntil(@Param("outboxIds") Collection<Long> outboxIds,
+                           @Param("claimedUntil") LocalDateTime claimedUntil);
+}
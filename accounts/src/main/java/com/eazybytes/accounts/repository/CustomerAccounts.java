@@ -0,0 +1,18 @@
+package com.eazybytes.accounts.repository;
+
+import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.Customer;
+
+/**
+ * Projection pairing a customer with its account, loaded by a single join query.
+ * The entities are never cached; the cache holds a CustomerAccountsView copy instead.
+ *
+ * @param customer the customer
+ * @param accounts the account owned by the customer
+ */
+public record CustomerAccounts(
+        Customer customer,
+
+        Accounts accounts
+) {
+}
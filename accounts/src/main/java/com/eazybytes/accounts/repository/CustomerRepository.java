@@ -2,11 +2,46 @@ package com.eazybytes.accounts.repository;
 
 import com.eazybytes.accounts.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByMobileNumber(String mobileNumber);
+
+    /**
+     * Loads the customer and its account with one join query. Reads go through CustomerAccountsCache.
+     */
+    @Query("SELECT new com.eazybytes.accounts.repository.CustomerAccounts(c, a) FROM Customer c "
+            + "JOIN Accounts a ON a.customerId = c.customerId WHERE c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccounts> findWithAccountsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("SELECT new com.eazybytes.accounts.repository.CustomerAccounts(c, a) FROM Customer c "
+            + "JOIN Accounts a ON a.customerId = c.customerId WHERE c.mobileNumber IN :mobileNumbers")
+    List<CustomerAccounts> findWithAccountsByMobileNumberIn(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Updates only the supplied columns of the customer owning the account in a single statement;
+     * null arguments keep the current value.
+     *
+     * @return the number of matched rows, 0 if no customer owns the account
+     */
+    @Modifying
+    @Query("UPDATE Customer c SET c.name = COALESCE(:name, c.name), c.email = COALESCE(:email, c.email), "
+            + "c.mobileNumber = COALESCE(:mobileNumber, c.mobileNumber), "
+            + "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy "
+            + "WHERE c.customerId = (SELECT a.customerId FROM Accounts a WHERE a.accountNumber = :accountNumber)")
+    int updateCustomerDetailsByAccountNumber(@Param("accountNumber") Long accountNumber,
+                              @Param("name") String name,
+                              @Param("email") String email,
+                              @Param("mobileNumber") String mobileNumber,
+                              @Param("updatedAt") LocalDateTime updatedAt,
+                              @Param("updatedBy") String updatedBy);
 }
@@ -2,6 +2,8 @@ package com.eazybytes.accounts.service;
 
 import com.eazybytes.accounts.dto.CustomerDto;
 
+import java.util.List;
+
 public interface IAccountsService {
     /**
      * Create a new account for the given customer.
@@ -31,9 +33,9 @@ public interface IAccountsService {
     boolean deleteAccount(String mobileNumber);
 
     /**
-     * Update communication status for the given account number.
-     * @param accountNumber the account number
-     * @return true if the update was successful, false otherwise
+     * Update communication status for all the given account numbers in a single statement.
+     * @param accountNumbers the account numbers
+     * @return the number of accounts updated
      */
-    boolean updateCommunicationStatus(Long accountNumber);
+    int updateCommunicationStatus(List<Long> accountNumbers);
 }
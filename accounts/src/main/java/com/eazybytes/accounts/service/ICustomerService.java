@@ -2,6 +2,9 @@ package com.eazybytes.accounts.service;
 
 import com.eazybytes.accounts.dto.CustomerDetailsDto;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface ICustomerService {
 
     /**
@@ -13,4 +16,15 @@ public interface ICustomerService {
      * @return A CustomerDetailsDto containing customer, accounts, cards, and loans details.
      */
     CustomerDetailsDto fetchCustomerDetails(String mobileNumber, String correlationId);
+
+    /**
+     * Fetches customer details for many mobile numbers. The numbers are processed in batches;
+     * each batch loads customers and accounts with one query and calls cards and loans once.
+     * Mobile numbers without a customer are skipped.
+     *
+     * @param mobileNumbers The mobile numbers of the customers.
+     * @param correlationId The correlation ID for tracking the request.
+     * @return A lazily evaluated stream of CustomerDetailsDto, produced batch by batch.
+     */
+    Stream<CustomerDetailsDto> fetchCustomerDetails(List<String> mobileNumbers, String correlationId);
 }
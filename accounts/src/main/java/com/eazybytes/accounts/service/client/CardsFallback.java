@@ -4,10 +4,17 @@ import com.eazybytes.accounts.dto.CardsDto;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class CardsFallback implements CardsFeignClient{
     @Override
     public ResponseEntity<CardsDto> fetchCardDetails(String correlationId, String mobileNumber) {
         return null;
     }
+
+    @Override
+    public ResponseEntity<List<CardsDto>> fetchCardDetailsBatch(String correlationId, List<String> mobileNumbers) {
+        return null;
+    }
 }
@@ -4,9 +4,13 @@ import com.eazybytes.accounts.dto.CardsDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "cards"/*, url = "${feign.client.config.cards.url}"*/, fallback = CardsFallback.class)
 public interface CardsFeignClient {
 
@@ -17,4 +21,12 @@ public interface CardsFeignClient {
 
             @RequestParam
             String mobileNumber);
+
+    @PostMapping(value = "/api/cards/fetchBatch", consumes = "application/json")
+    ResponseEntity<List<CardsDto>> fetchCardDetailsBatch(
+            @RequestHeader("eazybank-correlation-id")
+            String correlationId,
+
+            @RequestBody
+            List<String> mobileNumbers);
 }
@@ -4,10 +4,17 @@ import com.eazybytes.accounts.dto.LoansDto;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class LoansFallback implements LoansFeignClient {
     @Override
     public ResponseEntity<LoansDto> fetchLoanDetails(String correlationId, String mobileNumber) {
         return null;
     }
+
+    @Override
+    public ResponseEntity<List<LoansDto>> fetchLoanDetailsBatch(String correlationId, List<String> mobileNumbers) {
+        return null;
+    }
 }
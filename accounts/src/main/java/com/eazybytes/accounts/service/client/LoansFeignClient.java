@@ -4,9 +4,13 @@ import com.eazybytes.accounts.dto.LoansDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "loans"/*, url = "${feign.client.config.cards.url}"*/, fallback = LoansFallback.class)
 public interface LoansFeignClient {
 
@@ -17,4 +21,12 @@ public interface LoansFeignClient {
 
             @RequestParam
             String mobileNumber);
+
+    @PostMapping(value = "/api/loans/fetchBatch", consumes = "application/json")
+    ResponseEntity<List<LoansDto>> fetchLoanDetailsBatch(
+            @RequestHeader("eazybank-correlation-id")
+            String correlationId,
+
+            @RequestBody
+            List<String> mobileNumbers);
 }
@@ -1,23 +1,30 @@
 package com.eazybytes.accounts.service.impl;
 
+import com.eazybytes.accounts.audit.AuditAwareImpl;
+import com.eazybytes.accounts.cache.CustomerAccountsCache;
+import com.eazybytes.accounts.cache.CustomerAccountsView;
 import com.eazybytes.accounts.dto.AccountsDto;
-import com.eazybytes.accounts.dto.AccountsMessageDto;
 import com.eazybytes.accounts.dto.CustomerDto;
 import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.CommunicationOutbox;
 import com.eazybytes.accounts.entity.Customer;
 import com.eazybytes.accounts.exception.CustomerAlreadyExistsException;
 import com.eazybytes.accounts.exception.ResourceNotFoundException;
 import com.eazybytes.accounts.mapper.AccountsMapper;
 import com.eazybytes.accounts.mapper.CustomerMapper;
 import com.eazybytes.accounts.repository.AccountsRepository;
+import com.eazybytes.accounts.repository.CommunicationOutboxRepository;
 import com.eazybytes.accounts.repository.CustomerRepository;
 import com.eazybytes.accounts.service.IAccountsService;
+import com.eazybytes.idgenerator.BlockIdGenerator;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
-import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 
 import static com.eazybytes.accounts.constants.AccountsConstants.ADDRESS;
 import static com.eazybytes.accounts.constants.AccountsConstants.SAVINGS;
@@ -30,7 +37,10 @@ public class AccountsServiceImpl implements IAccountsService {
     private final Logger logger = getLogger(AccountsServiceImpl.class);
     private final AccountsRepository accountsRepository;
     private final CustomerRepository customerRepository;
-    private final StreamBridge streamBridge;
+    private final CommunicationOutboxRepository communicationOutboxRepository;
+    private final CustomerAccountsCache customerAccountsCache;
+    private final BlockIdGenerator accountNumberGenerator;
+    private final AuditAwareImpl auditAwareImpl;
 
     /**
      * Creates a new account for the given customer details.
@@ -38,6 +48,7 @@ public class AccountsServiceImpl implements IAccountsService {
      * @param customerDto the customer details
      */
     @Override
+    @Transactional
     public void createAccount(CustomerDto customerDto) {
         customerRepository.findByMobileNumber(customerDto.getMobileNumber())
                 .ifPresent(existingCustomer -> {
@@ -48,15 +59,19 @@ public class AccountsServiceImpl implements IAccountsService {
         Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
         Customer savedCustomer = customerRepository.save(customer);
         Accounts savedAccount = accountsRepository.save(createNewAccount(savedCustomer));
+        customerAccountsCache.evict(savedCustomer.getMobileNumber());
         sendCommunication(savedAccount, savedCustomer);
     }
 
+    /**
+     * Records the communication request in the outbox, in the same transaction as the account.
+     * CommunicationOutboxRelay publishes it to the broker in the background.
+     */
     private void sendCommunication(Accounts account, Customer customer) {
-        var accountsMsgDto = new AccountsMessageDto(account.getAccountNumber(), customer.getName(),
-                customer.getEmail(), customer.getMobileNumber());
-        logger.info("Sending Communication request for the details: {}", accountsMsgDto);
-        var result = streamBridge.send("sendCommunication-out-0", accountsMsgDto);
-        logger.info("Is the Communication request successfully triggered ? : {}", result);
+        var outbox = new CommunicationOutbox(null, account.getAccountNumber(), customer.getName(),
+                customer.getEmail(), customer.getMobileNumber(), LocalDateTime.now(), null);
+        communicationOutboxRepository.save(outbox);
+        logger.info("Queued Communication request for the account number: {}", account.getAccountNumber());
     }
 
     /**
@@ -67,14 +82,11 @@ public class AccountsServiceImpl implements IAccountsService {
      */
     @Override
     public CustomerDto getCustomer(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber)
+        CustomerAccountsView customerAccounts = customerAccountsCache.findByMobileNumber(mobileNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
 
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()));
-
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customerAccounts, new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(customerAccounts, new AccountsDto()));
         return customerDto;
     }
 
@@ -85,21 +97,26 @@ public class AccountsServiceImpl implements IAccountsService {
      * @return true if the update was successful, false otherwise
      */
     @Override
+    @Transactional
     public boolean updateAccount(CustomerDto customerDto) {
         AccountsDto accountsDto = customerDto.getAccountsDto();
         if (accountsDto != null) {
-            Accounts accounts = accountsRepository.findById(accountsDto.getAccountNumber()).orElseThrow(
-                    () -> new ResourceNotFoundException("Account", "AccountNumber", accountsDto.getAccountNumber().toString())
-            );
-            AccountsMapper.mapToAccounts(accountsDto, accounts);
-            accounts = accountsRepository.save(accounts);
-
-            Long customerId = accounts.getCustomerId();
-            Customer customer = customerRepository.findById(customerId).orElseThrow(
-                    () -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString())
-            );
-            CustomerMapper.mapToCustomer(customerDto, customer);
-            customerRepository.save(customer);
+            Long accountNumber = accountsDto.getAccountNumber();
+            LocalDateTime updatedAt = LocalDateTime.now();
+            String updatedBy = auditAwareImpl.getCurrentAuditor().orElse(null);
+            int updatedAccounts = accountsRepository.updateAccountDetails(accountNumber,
+                    accountsDto.getAccountType(), accountsDto.getBranchAddress(), updatedAt, updatedBy);
+            if (updatedAccounts == 0) {
+                throw new ResourceNotFoundException("Account", "AccountNumber", String.valueOf(accountNumber));
+            }
+            int updatedCustomers = customerRepository.updateCustomerDetailsByAccountNumber(accountNumber,
+                    customerDto.getName(), customerDto.getEmail(), customerDto.getMobileNumber(), updatedAt, updatedBy);
+            if (updatedCustomers == 0) {
+                throw new ResourceNotFoundException("Customer", "AccountNumber", String.valueOf(accountNumber));
+            }
+
+            // the previous mobile number is not read back, the cached views are found by account number
+            customerAccountsCache.evictByAccountNumbers(List.of(accountNumber));
             return true;
         }
         return false;
@@ -112,41 +129,45 @@ public class AccountsServiceImpl implements IAccountsService {
      * @return true if the deletion was successful, false otherwise
      */
     @Override
+    @Transactional
     public boolean deleteAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
 
         accountsRepository.deleteByCustomerId(customer.getCustomerId());
         customerRepository.deleteById(customer.getCustomerId());
+        customerAccountsCache.evict(mobileNumber);
         return true;
     }
 
     /**
-     * Update communication status for the given account number.
+     * Update communication status for all the given account numbers in a single statement.
+     * Unknown account numbers are logged and skipped rather than failing the whole batch.
      *
-     * @param accountNumber the account number
-     * @return true if the update was successful, false otherwise
+     * @param accountNumbers the account numbers
+     * @return the number of accounts updated
      */
     @Override
-    public boolean updateCommunicationStatus(Long accountNumber) {
-        boolean isUpdated = false;
-        if (accountNumber != null) {
-            Accounts accounts = accountsRepository.findById(accountNumber).orElseThrow(
-                    () -> new ResourceNotFoundException("Account", "AccountNumber", accountNumber.toString())
-            );
-            accounts.setCommunicationSw(true);
-            accountsRepository.save(accounts);
-            isUpdated = true;
+    @Transactional
+    public int updateCommunicationStatus(List<Long> accountNumbers) {
+        List<Long> distinctAccountNumbers = accountNumbers.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctAccountNumbers.isEmpty()) {
+            return 0;
+        }
+        int updated = accountsRepository.updateCommunicationSwByAccountNumberIn(distinctAccountNumbers,
+                LocalDateTime.now(), auditAwareImpl.getCurrentAuditor().orElse(null));
+        if (updated < distinctAccountNumbers.size()) {
+            logger.warn("Communication status updated for {} of {} accounts, the rest were not found",
+                    updated, distinctAccountNumbers.size());
         }
-        return isUpdated;
+        customerAccountsCache.evictByAccountNumbers(distinctAccountNumbers);
+        return updated;
     }
 
     private Accounts createNewAccount(Customer savedCustomer) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(savedCustomer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumberGenerator.next());
         newAccount.setAccountType(SAVINGS);
         newAccount.setBranchAddress(ADDRESS);
         return newAccount;
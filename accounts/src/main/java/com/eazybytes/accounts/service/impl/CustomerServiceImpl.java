@@ -1,31 +1,54 @@
 package com.eazybytes.accounts.service.impl;
 
+import com.eazybytes.accounts.cache.CustomerAccountsCache;
+import com.eazybytes.accounts.cache.CustomerAccountsView;
+import com.eazybytes.accounts.config.CustomerDetailsProperties;
 import com.eazybytes.accounts.dto.AccountsDto;
 import com.eazybytes.accounts.dto.CardsDto;
 import com.eazybytes.accounts.dto.CustomerDetailsDto;
 import com.eazybytes.accounts.dto.LoansDto;
-import com.eazybytes.accounts.entity.Accounts;
-import com.eazybytes.accounts.entity.Customer;
 import com.eazybytes.accounts.exception.ResourceNotFoundException;
 import com.eazybytes.accounts.mapper.AccountsMapper;
 import com.eazybytes.accounts.mapper.CustomerMapper;
-import com.eazybytes.accounts.repository.AccountsRepository;
+import com.eazybytes.accounts.repository.CustomerAccounts;
 import com.eazybytes.accounts.repository.CustomerRepository;
 import com.eazybytes.accounts.service.ICustomerService;
 import com.eazybytes.accounts.service.client.CardsFeignClient;
 import com.eazybytes.accounts.service.client.LoansFeignClient;
 import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
 @Service
 @AllArgsConstructor
 public class CustomerServiceImpl implements ICustomerService {
 
-    private final AccountsRepository accountsRepository;
+    private final Logger logger = getLogger(CustomerServiceImpl.class);
     private final CustomerRepository customerRepository;
+    private final CustomerAccountsCache customerAccountsCache;
     private final CardsFeignClient cardsFeignClient;
     private final LoansFeignClient loansFeignClient;
+    private final CustomerDetailsProperties customerDetailsProperties;
+    private final ExecutorService customerDetailsExecutor;
 
     /**
      * Fetches comprehensive customer details including accounts, cards, and loans
@@ -36,25 +59,179 @@ public class CustomerServiceImpl implements ICustomerService {
      */
     @Override
     public CustomerDetailsDto fetchCustomerDetails(String mobileNumber, String correlationId) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+        if (customerDetailsProperties.isParallel()) {
+            return fetchCustomerDetailsConcurrently(mobileNumber, correlationId);
+        }
 
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()));
+        CustomerDetailsDto customerDetailsDto = loadCustomerDetails(mobileNumber);
+        customerDetailsDto.setLoansDto(fetchLoans(mobileNumber, correlationId));
+        customerDetailsDto.setCardsDto(fetchCards(mobileNumber, correlationId));
+        return customerDetailsDto;
+    }
 
-        CustomerDetailsDto customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customer, new CustomerDetailsDto());
-        customerDetailsDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+    /**
+     * Runs the local customer/account lookup and both downstream calls at the same time.
+     * The local lookup is mandatory, so its failure (e.g. customer not found) is rethrown.
+     * Cards and loans are attached only if they complete before the configured deadline.
+     */
+    private CustomerDetailsDto fetchCustomerDetailsConcurrently(String mobileNumber, String correlationId) {
+        CompletableFuture<CustomerDetailsDto> customerFuture = submit(() -> loadCustomerDetails(mobileNumber));
+        CompletableFuture<LoansDto> loansFuture = submit(() -> fetchLoans(mobileNumber, correlationId));
+        CompletableFuture<CardsDto> cardsFuture = submit(() -> fetchCards(mobileNumber, correlationId));
 
-        ResponseEntity<LoansDto> loansDtoResponseEntity = loansFeignClient.fetchLoanDetails(correlationId, mobileNumber);
-        if (null != loansDtoResponseEntity) {
-            customerDetailsDto.setLoansDto(loansDtoResponseEntity.getBody());
+        CustomerDetailsDto customerDetailsDto;
+        try {
+            customerDetailsDto = customerFuture.join();
+        } catch (CompletionException ex) {
+            loansFuture.cancel(true);
+            cardsFuture.cancel(true);
+            if (ex.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Customer lookup for mobile number " + mobileNumber
+                        + " did not complete within " + customerDetailsProperties.getTimeout(), ex.getCause());
+            }
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
         }
 
-        ResponseEntity<CardsDto> cardsDtoResponseEntity = cardsFeignClient.fetchCardDetails(correlationId, mobileNumber);
-        if (null != cardsDtoResponseEntity) {
-            customerDetailsDto.setCardsDto(cardsDtoResponseEntity.getBody());
+        // every leg is bounded by the deadline, so this wait is too
+        CompletableFuture.allOf(loansFuture, cardsFuture).exceptionally(ex -> {
+            if (ex.getCause() instanceof TimeoutException) {
+                logger.debug("Customer details deadline of {} reached for mobile number {}, returning partial response",
+                        customerDetailsProperties.getTimeout(), mobileNumber);
+            } else {
+                logger.debug("Downstream lookup failed for mobile number {}", mobileNumber, ex);
+            }
+            return null;
+        }).join();
+
+        customerDetailsDto.setLoansDto(completedOrNull(loansFuture));
+        customerDetailsDto.setCardsDto(completedOrNull(cardsFuture));
+        return customerDetailsDto;
+    }
+
+    /**
+     * Fetches customer details for many mobile numbers, one batch at a time. Each batch costs
+     * one join query for customers and accounts plus one bulk call each to cards and loans.
+     *
+     * @param mobileNumbers The mobile numbers of the customers.
+     * @param correlationId The correlation ID for tracking the request.
+     * @return A lazily evaluated stream of CustomerDetailsDto in request order.
+     */
+    @Override
+    public Stream<CustomerDetailsDto> fetchCustomerDetails(List<String> mobileNumbers, String correlationId) {
+        List<String> distinctMobileNumbers = mobileNumbers.stream().distinct().toList();
+        int batchSize = Math.max(1, customerDetailsProperties.getBatchSize());
+        int batchCount = (distinctMobileNumbers.size() + batchSize - 1) / batchSize;
+        return IntStream.range(0, batchCount)
+                .mapToObj(batch -> distinctMobileNumbers.subList(batch * batchSize,
+                        Math.min(distinctMobileNumbers.size(), (batch + 1) * batchSize)))
+                .flatMap(batch -> fetchCustomerDetailsBatch(batch, correlationId).stream());
+    }
+
+    private List<CustomerDetailsDto> fetchCustomerDetailsBatch(List<String> mobileNumbers, String correlationId) {
+        Map<String, CustomerDetailsDto> customerDetailsByMobile = new LinkedHashMap<>();
+        Map<String, CustomerAccounts> customerAccountsByMobile = customerRepository
+                .findWithAccountsByMobileNumberIn(mobileNumbers).stream()
+                .collect(Collectors.toMap(row -> row.customer().getMobileNumber(), Function.identity(), (a, b) -> a));
+        for (String mobileNumber : mobileNumbers) {
+            CustomerAccounts row = customerAccountsByMobile.get(mobileNumber);
+            if (row != null) {
+                CustomerDetailsDto customerDetailsDto =
+                        CustomerMapper.mapToCustomerDetailsDto(row.customer(), new CustomerDetailsDto());
+                customerDetailsDto.setAccountsDto(AccountsMapper.mapToAccountsDto(row.accounts(), new AccountsDto()));
+                customerDetailsByMobile.put(mobileNumber, customerDetailsDto);
+            }
         }
+        if (customerDetailsByMobile.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> foundMobileNumbers = List.copyOf(customerDetailsByMobile.keySet());
+        CompletableFuture<List<LoansDto>> loansFuture =
+                submit(() -> bodyOrEmpty(loansFeignClient.fetchLoanDetailsBatch(correlationId, foundMobileNumbers)))
+                        .exceptionally(ex -> partialBatch("loans", foundMobileNumbers, ex));
+        CompletableFuture<List<CardsDto>> cardsFuture =
+                submit(() -> bodyOrEmpty(cardsFeignClient.fetchCardDetailsBatch(correlationId, foundMobileNumbers)))
+                        .exceptionally(ex -> partialBatch("cards", foundMobileNumbers, ex));
 
+        loansFuture.join().forEach(loansDto -> {
+            CustomerDetailsDto customerDetailsDto = customerDetailsByMobile.get(loansDto.getMobileNumber());
+            if (customerDetailsDto != null) {
+                customerDetailsDto.setLoansDto(loansDto);
+            }
+        });
+        cardsFuture.join().forEach(cardsDto -> {
+            CustomerDetailsDto customerDetailsDto = customerDetailsByMobile.get(cardsDto.getMobileNumber());
+            if (customerDetailsDto != null) {
+                customerDetailsDto.setCardsDto(cardsDto);
+            }
+        });
+        return List.copyOf(customerDetailsByMobile.values());
+    }
+
+    private CustomerDetailsDto loadCustomerDetails(String mobileNumber) {
+        CustomerAccountsView customerAccounts = customerAccountsCache.findByMobileNumber(mobileNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+
+        CustomerDetailsDto customerDetailsDto =
+                CustomerMapper.mapToCustomerDetailsDto(customerAccounts, new CustomerDetailsDto());
+        customerDetailsDto.setAccountsDto(AccountsMapper.mapToAccountsDto(customerAccounts, new AccountsDto()));
         return customerDetailsDto;
     }
+
+    private LoansDto fetchLoans(String mobileNumber, String correlationId) {
+        ResponseEntity<LoansDto> loansDtoResponseEntity = loansFeignClient.fetchLoanDetails(correlationId, mobileNumber);
+        return null != loansDtoResponseEntity ? loansDtoResponseEntity.getBody() : null;
+    }
+
+    private CardsDto fetchCards(String mobileNumber, String correlationId) {
+        ResponseEntity<CardsDto> cardsDtoResponseEntity = cardsFeignClient.fetchCardDetails(correlationId, mobileNumber);
+        return null != cardsDtoResponseEntity ? cardsDtoResponseEntity.getBody() : null;
+    }
+
+    private static <T> List<T> bodyOrEmpty(ResponseEntity<List<T>> responseEntity) {
+        if (null == responseEntity || null == responseEntity.getBody()) {
+            return Collections.emptyList();
+        }
+        return responseEntity.getBody();
+    }
+
+    private <T> List<T> partialBatch(String part, List<String> mobileNumbers, Throwable ex) {
+        logger.debug("Bulk {} lookup for {} mobile numbers failed or missed the deadline of {}, leaving it empty",
+                part, mobileNumbers.size(), customerDetailsProperties.getTimeout(), ex);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Runs a lookup on the customer details executor, bounded by the configured deadline. When the
+     * returned future times out or is cancelled, the thread running the lookup is interrupted, which
+     * also aborts a blocking JPA or Feign call on a virtual thread.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> lookup) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> running = customerDetailsExecutor.submit(() -> {
+            try {
+                future.complete(lookup.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        future.orTimeout(customerDetailsProperties.getTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        running.cancel(true);
+                    }
+                });
+        return future;
+    }
+
+    private static <T> T completedOrNull(CompletableFuture<T> future) {
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            return future.join();
+        }
+        future.cancel(true);
+        return null;
+    }
 }
@@ -0,0 +1,25 @@
+-- Databases that predate the migrations may hold duplicates the unique constraints below would
+-- reject. Stop with a readable error rather than a bare duplicate key failure; the README describes
+-- the cleanup.
+DROP PROCEDURE IF EXISTS `check_customer_duplicates`;
+
+DELIMITER //
+
+CREATE PROCEDURE `check_customer_duplicates`()
+BEGIN
+    IF EXISTS (SELECT 1 FROM `customer` GROUP BY `mobile_number` HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'customer.mobile_number has duplicates; resolve them before V2 adds its unique constraint';
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL `check_customer_duplicates`();
+DROP PROCEDURE `check_customer_duplicates`;
+
+-- Customers are read by mobile number on every lookup path and createAccount already treats it as unique
+ALTER TABLE `customer` ADD CONSTRAINT `uk_customer_mobile_number` UNIQUE (`mobile_number`);
+
+-- Accounts are fetched and joined by customer_id
+CREATE INDEX `idx_accounts_customer_id` ON `accounts` (`customer_id`);
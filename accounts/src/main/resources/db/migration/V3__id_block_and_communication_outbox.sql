@@ -0,0 +1,18 @@
+-- Account numbers are handed out in blocks reserved from this table by the id-generator library
+CREATE TABLE IF NOT EXISTS `id_block` (
+                                          `name` varchar(50) NOT NULL PRIMARY KEY,
+                                          `next_value` bigint NOT NULL
+    );
+
+INSERT IGNORE INTO `id_block` (`name`, `next_value`) VALUES ('accounts', 0);
+
+-- Communication requests written with the account and relayed to the broker by CommunicationOutboxRelay
+CREATE TABLE IF NOT EXISTS `communication_outbox` (
+                                          `outbox_id` bigint AUTO_INCREMENT  PRIMARY KEY,
+                                          `account_number` bigint NOT NULL,
+    `name` varchar(100) NOT NULL,
+    `email` varchar(100) NOT NULL,
+    `mobile_number` varchar(20) NOT NULL,
+    `created_at` datetime NOT NULL,
+    `claimed_until` datetime DEFAULT NULL
+    );
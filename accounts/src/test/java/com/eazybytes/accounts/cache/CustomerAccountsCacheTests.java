@@ -0,0 +1,89 @@
+package com.eazybytes.accounts.cache;
+
+import com.eazybytes.accounts.dto.CustomerCacheInvalidationDto;
+import com.eazybytes.accounts.entity.Accounts;
+import com.eazybytes.accounts.entity.Customer;
+import com.eazybytes.accounts.repository.CustomerAccounts;
+import com.eazybytes.accounts.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cloud.stream.function.StreamBridge;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.eazybytes.accounts.constants.AccountsConstants.CUSTOMER_ACCOUNTS_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerAccountsCacheTests {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private CustomerAccountsCache customerAccountsCache;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CUSTOMER_ACCOUNTS_CACHE);
+        customerAccountsCache = new CustomerAccountsCache(cacheManager, customerRepository, streamBridge);
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerAccountsCache.shutdown();
+    }
+
+    @Test
+    void evictByAccountNumbersDropsTheViewWhateverMobileNumberItIsCachedUnder() {
+        when(customerRepository.findWithAccountsByMobileNumber("9876543210"))
+                .thenReturn(Optional.of(row(1L, "9876543210", 1_900_000_001L)));
+        when(customerRepository.findWithAccountsByMobileNumber("9876543211"))
+                .thenReturn(Optional.of(row(2L, "9876543211", 1_900_000_002L)));
+        customerAccountsCache.findByMobileNumber("9876543210");
+        customerAccountsCache.findByMobileNumber("9876543211");
+
+        customerAccountsCache.evictByAccountNumbers(List.of(1_900_000_001L));
+        customerAccountsCache.findByMobileNumber("9876543210");
+        customerAccountsCache.findByMobileNumber("9876543211");
+
+        verify(customerRepository, times(2)).findWithAccountsByMobileNumber("9876543210");
+        verify(customerRepository, times(1)).findWithAccountsByMobileNumber("9876543211");
+        verify(streamBridge, timeout(1000)).send(eq("customerCacheInvalidation-out-0"),
+                eq(new CustomerCacheInvalidationDto(List.of(), List.of(1_900_000_001L))));
+    }
+
+    @Test
+    void evictLocallyAcceptsEventsWithoutAccountNumbers() {
+        when(customerRepository.findWithAccountsByMobileNumber("9876543210"))
+                .thenReturn(Optional.of(row(1L, "9876543210", 1_900_000_001L)));
+        customerAccountsCache.findByMobileNumber("9876543210");
+
+        customerAccountsCache.evictLocally(new CustomerCacheInvalidationDto(List.of("9876543210"), null));
+        assertThat(customerAccountsCache.findByMobileNumber("9876543210")).isPresent();
+
+        verify(customerRepository, times(2)).findWithAccountsByMobileNumber("9876543210");
+        verify(streamBridge, times(0)).send(any(), any());
+    }
+
+    private static CustomerAccounts row(Long customerId, String mobileNumber, Long accountNumber) {
+        Customer customer = new Customer();
+        customer.setCustomerId(customerId);
+        customer.setName("Madan Reddy");
+        customer.setEmail("tutor@eazybytes.com");
+        customer.setMobileNumber(mobileNumber);
+        Accounts accounts = new Accounts();
+        accounts.setAccountNumber(accountNumber);
+        accounts.setCustomerId(customerId);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("123 Main Street, New York");
+        return new CustomerAccounts(customer, accounts);
+    }
+}
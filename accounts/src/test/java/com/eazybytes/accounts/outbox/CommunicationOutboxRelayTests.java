@@ -0,0 +1,78 @@
+package com.eazybytes.accounts.outbox;
+
+import com.eazybytes.accounts.dto.AccountsMessageDto;
+import com.eazybytes.accounts.entity.CommunicationOutbox;
+import com.eazybytes.accounts.repository.CommunicationOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommunicationOutboxRelayTests {
+
+    private final CommunicationOutboxRepository communicationOutboxRepository = mock(CommunicationOutboxRepository.class);
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CommunicationOutboxRelay relay = new CommunicationOutboxRelay(communicationOutboxRepository,
+            streamBridge, transactionManager, 100, 300_000);
+
+    @Test
+    void publishesOutsideTheClaimTransaction() {
+        when(communicationOutboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of(outbox(1L), outbox(2L)));
+        when(streamBridge.send(eq("sendCommunication-out-0"), any())).thenReturn(true);
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(communicationOutboxRepository, transactionManager, streamBridge);
+        inOrder.verify(communicationOutboxRepository).updateClaimedUntil(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(streamBridge).send(eq("sendCommunication-out-0"),
+                argThat(message -> ((AccountsMessageDto) message).eventId() == 1L));
+        inOrder.verify(streamBridge).send(eq("sendCommunication-out-0"),
+                argThat(message -> ((AccountsMessageDto) message).eventId() == 2L));
+        inOrder.verify(communicationOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        inOrder.verify(transactionManager).commit(any());
+        verify(communicationOutboxRepository, never()).updateClaimedUntil(any(), isNull());
+    }
+
+    @Test
+    void releasesTheRowsFromTheFirstFailedPublishOn() {
+        when(communicationOutboxRepository.lockNextBatch(any(), anyInt()))
+                .thenReturn(List.of(outbox(1L), outbox(2L), outbox(3L)));
+        when(streamBridge.send(eq("sendCommunication-out-0"), any())).thenReturn(true, false, true);
+
+        relay.relay();
+
+        verify(communicationOutboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(communicationOutboxRepository).updateClaimedUntil(eq(List.of(2L, 3L)), isNull());
+    }
+
+    @Test
+    void doesNothingWhenTheOutboxIsEmpty() {
+        when(communicationOutboxRepository.lockNextBatch(any(), anyInt())).thenReturn(List.of());
+
+        relay.relay();
+
+        verify(streamBridge, never()).send(any(), any());
+        verify(communicationOutboxRepository, never()).updateClaimedUntil(any(), any());
+    }
+
+    private static CommunicationOutbox outbox(Long outboxId) {
+        return new CommunicationOutbox(outboxId, 1_900_000_000L + outboxId, "Madan Reddy", "tutor@eazybytes.com",
+                "9876543210", LocalDateTime.now(), null);
+    }
+}
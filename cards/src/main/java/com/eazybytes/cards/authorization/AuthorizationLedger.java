@@ -0,0 +1,280 @@
+package com.eazybytes.cards.authorization;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Append-only write-ahead log of approved card authorizations.
+ * <p>
+ * The ledger is a directory of segment files named after the first sequence they may hold. All
+ * writes go through a single writer thread that drains whatever has queued up, writes it with one
+ * sequential write and forces it to disk once (group commit), so the cost of an fsync is shared by
+ * every authorization that arrived while the previous one was in progress. A caller's future
+ * completes only once its entry is durable.
+ * <p>
+ * Segments are only ever appended to by the process that created them. After a checkpoint has
+ * folded everything up to a sequence into the database, the ledger is rotated to a new segment and
+ * the older ones are deleted. If a write fails the ledger stops accepting entries, since it can no
+ * longer tell which of them reached the disk.
+ */
+class AuthorizationLedger {
+
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_BATCH = 4096;
+
+    private final Logger logger = getLogger(AuthorizationLedger.class);
+    private final Path directory;
+    private final boolean fsync;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private Thread writer;
+    private FileChannel channel;
+    private long segmentStart;
+    private volatile IOException failure;
+    private boolean closed;
+
+    AuthorizationLedger(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads back every intact entry in the existing segments.
+     *
+     * @param afterSequence entries up to and including this sequence are already checkpointed and skipped
+     */
+    Replay replay(long afterSequence) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        long lastSequence = afterSequence;
+        try {
+            Files.createDirectories(directory);
+            for (Path segment : segments()) {
+                try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.US_ASCII)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        LedgerEntry entry = LedgerEntry.decode(line);
+                        if (entry == null) {
+                            // only the tail of a segment can be torn, nothing is written after it
+                            logger.warn("Ignoring torn authorization ledger entry at the end of {}", segment);
+                            break;
+                        }
+                        lastSequence = Math.max(lastSequence, entry.sequence());
+                        if (entry.sequence() > afterSequence) {
+                            entries.add(entry);
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read the authorization ledger in " + directory, ex);
+        }
+        return new Replay(entries, lastSequence);
+    }
+
+    /**
+     * Starts a new segment for entries from {@code nextSequence} on and starts the writer thread.
+     */
+    void open(long nextSequence) {
+        try {
+            openSegment(nextSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open the authorization ledger in " + directory, ex);
+        }
+        writer = Thread.ofPlatform().name("card-ledger-writer").daemon().start(this::writeLoop);
+        logger.info("Authorization ledger open in {}, next sequence {}", directory, nextSequence);
+    }
+
+    /**
+     * Queues an entry for writing.
+     *
+     * @return a future that completes once the entry is on disk, or exceptionally if it could not be written
+     */
+    CompletableFuture<Void> append(LedgerEntry entry) {
+        return enqueue(new Command(entry, 0L, new CompletableFuture<>()));
+    }
+
+    /**
+     * Switches to a new segment for entries from {@code nextSequence} on, after everything queued so far.
+     *
+     * @return a future that completes once all earlier entries are on disk and the new segment is open
+     */
+    CompletableFuture<Void> rotate(long nextSequence) {
+        return enqueue(new Command(null, nextSequence, new CompletableFuture<>()));
+    }
+
+    /**
+     * Deletes the segments that only hold entries before {@code nextSequence}. Only call this for a
+     * sequence the ledger has been {@link #rotate rotated} to.
+     */
+    void deleteSegmentsBefore(long nextSequence) {
+        try {
+            for (Path segment : segments()) {
+                if (startOf(segment) < nextSequence) {
+                    Files.deleteIfExists(segment);
+                    logger.debug("Deleted checkpointed authorization ledger segment {}", segment);
+                }
+            }
+        } catch (IOException ex) {
+            // harmless: the entries are skipped on replay, and deletion is retried after the next checkpoint
+            logger.warn("Failed to delete checkpointed authorization ledger segments", ex);
+        }
+    }
+
+    /**
+     * Stops accepting entries, waits for the queued ones to be written and closes the segment.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+            channel.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            logger.warn("Failed to close the authorization ledger", ex);
+        }
+    }
+
+    private synchronized CompletableFuture<Void> enqueue(Command command) {
+        if (closed) {
+            throw new IllegalStateException("Authorization ledger is closed");
+        }
+        queue.add(command);
+        return command.done();
+    }
+
+    private void writeLoop() {
+        List<Command> batch = new ArrayList<>();
+        while (true) {
+            try {
+                Command first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    synchronized (this) {
+                        if (closed && queue.isEmpty()) {
+                            return;
+                        }
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                failure = new IOException("Authorization ledger writer failed", ex);
+                logger.error("Authorization ledger writer failed", ex);
+                batch.forEach(command -> command.done().completeExceptionally(failure));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Command> batch) {
+        if (failure != null) {
+            batch.forEach(command -> command.done().completeExceptionally(failure));
+            return;
+        }
+        StringBuilder pending = new StringBuilder();
+        int flushedUpTo = 0;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                Command command = batch.get(i);
+                if (command.entry() != null) {
+                    pending.append(command.entry().encode());
+                    continue;
+                }
+                flush(pending);
+                completeAll(batch, flushedUpTo, i);
+                flushedUpTo = i;
+                if (command.rotateTo() != segmentStart) {
+                    channel.close();
+                    openSegment(command.rotateTo());
+                }
+                command.done().complete(null);
+                flushedUpTo = i + 1;
+            }
+            flush(pending);
+            completeAll(batch, flushedUpTo, batch.size());
+        } catch (IOException ex) {
+            failure = ex;
+            logger.error("Failed to write the authorization ledger, no further authorizations can be recorded", ex);
+            for (int i = flushedUpTo; i < batch.size(); i++) {
+                batch.get(i).done().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private void flush(StringBuilder pending) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        pending.setLength(0);
+    }
+
+    private static void completeAll(List<Command> batch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            batch.get(i).done().complete(null);
+        }
+    }
+
+    private void openSegment(long nextSequence) throws IOException {
+        // a segment with this name can only be left over without any entries, so truncating it is safe
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        segmentStart = nextSequence;
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long startOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    record Replay(List<LedgerEntry> entries, long lastSequence) {
+    }
+
+    private record Command(LedgerEntry entry, long rotateTo, CompletableFuture<Void> done) {
+    }
+}
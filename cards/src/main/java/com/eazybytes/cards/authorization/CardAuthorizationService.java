@@ -0,0 +1,397 @@
+package com.eazybytes.cards.authorization;
+
+import com.eazybytes.cards.audit.AuditAwareImpl;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.entity.AuthorizationCheckpoint;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.exception.InvalidCardTransactionException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.repository.AuthorizationCheckpointRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Authorizes card spends against in-memory balances instead of a read-modify-write on the
+ * {@code cards} row per spend.
+ * <p>
+ * It is the only path that changes a card's available and used amounts: debits are
+ * authorizations, credits are recorded as negative ones and a new total limit moves the available
+ * amount by the difference, so the checks always see everything approved so far, whether or not it
+ * has been booked to the row yet.
+ * <p>
+ * The balances of recently used cards are kept in memory, guarded by a fixed set of lock stripes
+ * so that authorizations on different cards rarely contend. An approved authorization is appended
+ * to the {@link AuthorizationLedger} and only confirmed once it is on disk. Every checkpoint
+ * interval the amounts authorized per card are booked to the {@code cards} rows in one
+ * transaction, together with the ledger sequence they cover, and the balances are refreshed from
+ * the rows. On startup the entries after the last checkpoint are replayed from the ledger.
+ * <p>
+ * The balances are owned by this instance: when several instances run, authorizations for a card
+ * must always reach the same one, each with its own {@code ledger-id} and ledger directory.
+ * Card details read from the database lag behind authorizations by up to one checkpoint interval.
+ */
+@Service
+public class CardAuthorizationService {
+
+    private static final int MAX_LEDGER_ID_LENGTH = 50;
+
+    private final Logger logger = getLogger(CardAuthorizationService.class);
+    private final CardsRepository cardsRepository;
+    private final AuthorizationCheckpointRepository checkpointRepository;
+    private final AuditAwareImpl auditAwareImpl;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorizationLedger ledger;
+    private final String ledgerId;
+    private final ReentrantLock[] stripes;
+    private final Map<String, CardBalance> balances = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private long checkpointedSequence;
+
+    public CardAuthorizationService(CardsRepository cardsRepository,
+                                    AuthorizationCheckpointRepository checkpointRepository,
+                                    AuditAwareImpl auditAwareImpl,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${card-authorization.ledger-dir:card-ledger}") String ledgerDir,
+                                    @Value("${card-authorization.ledger-id:}") String ledgerId,
+                                    @Value("${card-authorization.fsync:true}") boolean fsync,
+                                    @Value("${card-authorization.stripes:64}") int stripes) {
+        this.cardsRepository = cardsRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.auditAwareImpl = auditAwareImpl;
+        if (ledgerId.isBlank() || ledgerId.length() > MAX_LEDGER_ID_LENGTH) {
+            // two instances sharing a ledger id would overwrite each other's checkpoint
+            throw new IllegalStateException("card-authorization.ledger-id must be set to an id of at most "
+                    + MAX_LEDGER_ID_LENGTH + " characters that is unique to this instance and stable across restarts");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledger = new AuthorizationLedger(Path.of(ledgerDir), fsync);
+        this.ledgerId = ledgerId;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Replays the authorizations that were recorded after the last checkpoint and opens the ledger.
+     */
+    @PostConstruct
+    public void recover() {
+        long checkpointed = checkpointRepository.findById(ledgerId)
+                .map(AuthorizationCheckpoint::getLedgerSequence)
+                .orElse(0L);
+        AuthorizationLedger.Replay replay = ledger.replay(checkpointed);
+        for (LedgerEntry entry : replay.entries()) {
+            CardBalance balance = balances.get(entry.cardNumber());
+            if (balance == null) {
+                Optional<Cards> cards = cardsRepository.findByCardNumber(entry.cardNumber());
+                if (cards.isEmpty()) {
+                    logger.warn("Dropping authorization {} for card {}, which no longer exists",
+                            entry.sequence(), entry.cardNumber());
+                    continue;
+                }
+                balance = new CardBalance(cards.get().getAvailableAmount(), cards.get().getAmountUsed());
+                balances.put(entry.cardNumber(), balance);
+            }
+            balance.pending += entry.amount();
+            balance.touched = true;
+        }
+        checkpointedSequence = checkpointed;
+        sequence.set(replay.lastSequence());
+        ledger.open(replay.lastSequence() + 1);
+        if (replay.entries().isEmpty()) {
+            ledger.deleteSegmentsBefore(replay.lastSequence() + 1);
+        }
+        logger.info("Replayed {} authorizations after checkpoint {} for {} cards",
+                replay.entries().size(), checkpointed, balances.size());
+    }
+
+    /**
+     * Approves a spend on a card if enough of its limit is available, and records it durably.
+     *
+     * @param cardNumber the card to charge
+     * @param amount     the amount to authorize
+     * @return the authorization and the amount still available on the card
+     */
+    public CardAuthorizationDto authorize(String cardNumber, int amount) {
+        return record(cardNumber, amount, balance -> amount > balance.available()
+                ? "Insufficient available amount on card " + cardNumber + " to authorize " + amount
+                : null);
+    }
+
+    /**
+     * Gives an amount back to a card, e.g. for a refund or a repayment, if no more than its used
+     * amount, and records it durably.
+     *
+     * @param cardNumber the card to credit
+     * @param amount     the amount to return to the available amount
+     * @return the credit, with a negative amount, and the amount now available on the card
+     */
+    public CardAuthorizationDto credit(String cardNumber, int amount) {
+        return record(cardNumber, -amount, balance -> amount > balance.used()
+                ? "Credit exceeds the amount used on card " + cardNumber
+                : null);
+    }
+
+    /**
+     * Saves a card with a new total limit and moves its available amount by the difference, in the
+     * row and in its balance at once. Refused if the card has used more than the new limit.
+     * <p>
+     * Synchronized with {@link #checkpoint()}, so that refreshing the balances from the rows cannot
+     * read the row from before the change and overwrite the balance from after it.
+     *
+     * @param cards      the card as loaded for the update, with its other changes applied
+     * @param totalLimit the new total limit
+     */
+    public synchronized void changeLimit(Cards cards, int totalLimit) {
+        String cardNumber = cards.getCardNumber();
+        int change = totalLimit - cards.getTotalLimit();
+        while (true) {
+            // loaded before the row changes, so that no spend can load the balance from the old row afterwards
+            CardBalance balance = balances.get(cardNumber);
+            if (balance == null) {
+                balance = load(cardNumber);
+            }
+            ReentrantLock lock = stripeFor(cardNumber);
+            lock.lock();
+            try {
+                if (balances.get(cardNumber) != balance) {
+                    continue;
+                }
+                if (balance.available() + change < 0) {
+                    throw new InvalidCardTransactionException("Card " + cardNumber + " has used "
+                            + balance.used() + ", more than the new total limit of " + totalLimit);
+                }
+                cards.setTotalLimit(totalLimit);
+                cards.setAvailableAmount(cards.getAvailableAmount() + change);
+                cardsRepository.save(cards);
+                balance.committedAvailable += change;
+                balance.touched = true;
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param rejection the reason to refuse the change given the card's current balance, or null to accept it
+     */
+    private CardAuthorizationDto record(String cardNumber, int delta, Function<CardBalance, String> rejection) {
+        while (true) {
+            CardBalance balance = balances.get(cardNumber);
+            if (balance == null) {
+                balance = load(cardNumber);
+            }
+            ReentrantLock lock = stripeFor(cardNumber);
+            LedgerEntry entry;
+            CompletableFuture<Void> durable;
+            int available;
+            lock.lock();
+            try {
+                if (balances.get(cardNumber) != balance) {
+                    // evicted in the meantime, start over with the current balance
+                    continue;
+                }
+                String reason = rejection.apply(balance);
+                if (reason != null) {
+                    throw new InvalidCardTransactionException(reason);
+                }
+                entry = new LedgerEntry(sequence.incrementAndGet(), cardNumber, delta, System.currentTimeMillis());
+                durable = ledger.append(entry);
+                balance.pending += delta;
+                balance.touched = true;
+                available = balance.available();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                durable.join();
+            } catch (CompletionException ex) {
+                lock.lock();
+                try {
+                    balance.pending -= delta;
+                } finally {
+                    lock.unlock();
+                }
+                throw new IllegalStateException("Authorization could not be recorded for card " + cardNumber,
+                        ex.getCause());
+            }
+            return new CardAuthorizationDto(entry.sequence(), cardNumber, delta, available);
+        }
+    }
+
+    /**
+     * Books the amounts authorized since the last checkpoint to the {@code cards} rows and
+     * refreshes the in-memory balances from them.
+     */
+    @Scheduled(fixedDelayString = "${card-authorization.checkpoint-interval-ms:5000}")
+    public synchronized void checkpoint() {
+        Map<String, Integer> deltas = new HashMap<>();
+        CompletableFuture<Void> rotated = null;
+        long upTo;
+        // all stripes, so that the snapshot covers exactly the entries up to upTo
+        lockAll();
+        try {
+            upTo = sequence.get();
+            if (upTo > checkpointedSequence) {
+                rotated = ledger.rotate(upTo + 1);
+                balances.forEach((cardNumber, balance) -> {
+                    if (balance.pending != 0) {
+                        deltas.put(cardNumber, balance.pending);
+                        balance.committedAvailable -= balance.pending;
+                        balance.committedUsed += balance.pending;
+                        balance.pending = 0;
+                    }
+                });
+            }
+        } finally {
+            unlockAll();
+        }
+
+        if (rotated != null && !book(upTo, deltas, rotated)) {
+            return;
+        }
+        refreshHotBalances();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+        ledger.close();
+    }
+
+    private boolean book(long upTo, Map<String, Integer> deltas, CompletableFuture<Void> rotated) {
+        try {
+            // nothing reaches the database before it is in the ledger
+            rotated.join();
+            LocalDateTime now = LocalDateTime.now();
+            String updatedBy = auditAwareImpl.getCurrentAuditor().orElse(null);
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach((cardNumber, delta) -> {
+                    if (cardsRepository.applyAuthorizedAmount(cardNumber, delta, now, updatedBy) == 0) {
+                        logger.warn("Dropping {} authorized on card {}, which no longer exists", delta, cardNumber);
+                    }
+                });
+                checkpointRepository.save(new AuthorizationCheckpoint(ledgerId, upTo));
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("Authorization checkpoint up to sequence {} failed, retrying on the next run", upTo, ex);
+            deltas.forEach((cardNumber, delta) -> {
+                ReentrantLock lock = stripeFor(cardNumber);
+                lock.lock();
+                try {
+                    CardBalance balance = balances.get(cardNumber);
+                    balance.committedAvailable += delta;
+                    balance.committedUsed -= delta;
+                    balance.pending += delta;
+                } finally {
+                    lock.unlock();
+                }
+            });
+            return false;
+        }
+        checkpointedSequence = upTo;
+        ledger.deleteSegmentsBefore(upTo + 1);
+        logger.debug("Checkpointed authorizations on {} cards up to sequence {}", deltas.size(), upTo);
+        return true;
+    }
+
+    /**
+     * Evicts the cards that saw no authorization since the previous checkpoint and reloads the
+     * available amount of the others, which now includes everything booked so far.
+     */
+    private void refreshHotBalances() {
+        List<String> hot = new ArrayList<>();
+        for (Map.Entry<String, CardBalance> entry : balances.entrySet()) {
+            ReentrantLock lock = stripeFor(entry.getKey());
+            lock.lock();
+            try {
+                CardBalance balance = entry.getValue();
+                if (balance.pending == 0 && !balance.touched) {
+                    balances.remove(entry.getKey(), balance);
+                } else {
+                    balance.touched = false;
+                    hot.add(entry.getKey());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (hot.isEmpty()) {
+            return;
+        }
+
+        Map<String, Cards> rows = cardsRepository.findByCardNumberIn(hot).stream()
+                .collect(Collectors.toMap(Cards::getCardNumber, Function.identity()));
+        for (String cardNumber : hot) {
+            ReentrantLock lock = stripeFor(cardNumber);
+            lock.lock();
+            try {
+                CardBalance balance = balances.get(cardNumber);
+                Cards cards = rows.get(cardNumber);
+                if (balance == null) {
+                    continue;
+                }
+                if (cards != null) {
+                    balance.committedAvailable = cards.getAvailableAmount();
+                    balance.committedUsed = cards.getAmountUsed();
+                } else if (balance.pending == 0) {
+                    balances.remove(cardNumber, balance);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private CardBalance load(String cardNumber) {
+        Cards cards = cardsRepository.findByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "cardNumber", cardNumber)
+        );
+        CardBalance loaded = new CardBalance(cards.getAvailableAmount(), cards.getAmountUsed());
+        CardBalance existing = balances.putIfAbsent(cardNumber, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private ReentrantLock stripeFor(String cardNumber) {
+        return stripes[Math.floorMod(cardNumber.hashCode(), stripes.length)];
+    }
+
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+}
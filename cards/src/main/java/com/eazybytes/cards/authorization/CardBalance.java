@@ -0,0 +1,42 @@
+package com.eazybytes.cards.authorization;
+
+/**
+ * In-memory balance of one hot card. Only read or changed while holding the card's stripe lock in
+ * {@link CardAuthorizationService}.
+ */
+class CardBalance {
+
+    /**
+     * Available amount in the {@code cards} row as of the last checkpoint.
+     */
+    int committedAvailable;
+
+    /**
+     * Amount used in the {@code cards} row as of the last checkpoint.
+     */
+    int committedUsed;
+
+    /**
+     * Authorized since the last checkpoint and not yet booked to the {@code cards} row; credits
+     * count negative.
+     */
+    int pending;
+
+    /**
+     * Whether the card was authorized against since the last checkpoint; idle cards are evicted.
+     */
+    boolean touched;
+
+    CardBalance(int committedAvailable, int committedUsed) {
+        this.committedAvailable = committedAvailable;
+        this.committedUsed = committedUsed;
+    }
+
+    int available() {
+        return committedAvailable - pending;
+    }
+
+    int used() {
+        return committedUsed + pending;
+    }
+}
@@ -0,0 +1,53 @@
+package com.eazybytes.cards.authorization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * One approved authorization as recorded in the {@link AuthorizationLedger}.
+ * <p>
+ * Entries are stored one per line as {@code sequence,cardNumber,amount,timestamp,crc} with a CRC32
+ * of the preceding fields, so a line torn by a crash mid-write is recognised and dropped on replay.
+ *
+ * @param sequence   position in the ledger, unique and increasing
+ * @param cardNumber the card that was charged
+ * @param amount     the authorized amount
+ * @param timestamp  epoch millis when the authorization was approved
+ */
+record LedgerEntry(long sequence, String cardNumber, int amount, long timestamp) {
+
+    String encode() {
+        String fields = sequence + "," + cardNumber + "," + amount + "," + timestamp;
+        return fields + "," + Long.toHexString(crc(fields)) + "\n";
+    }
+
+    /**
+     * @return the entry, or {@code null} if the line is malformed or fails its checksum
+     */
+    static LedgerEntry decode(String line) {
+        int lastComma = line.lastIndexOf(',');
+        if (lastComma < 0) {
+            return null;
+        }
+        String fields = line.substring(0, lastComma);
+        String[] parts = fields.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            if (Long.parseLong(line.substring(lastComma + 1), 16) != crc(fields)) {
+                return null;
+            }
+            return new LedgerEntry(Long.parseLong(parts[0]), parts[1], Integer.parseInt(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static long crc(String fields) {
+        CRC32 crc = new CRC32();
+        crc.update(fields.getBytes(StandardCharsets.US_ASCII));
+        return crc.getValue();
+    }
+}
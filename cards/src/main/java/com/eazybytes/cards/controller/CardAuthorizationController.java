@@ -0,0 +1,82 @@
+package com.eazybytes.cards.controller;
+
+import com.eazybytes.cards.authorization.CardAuthorizationService;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.dto.ErrorResponseDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(
+        name = "Authorization REST API for Cards in EazyBank",
+        description = "REST API in EazyBank to authorize spends against the available limit of a card"
+)
+@RestController
+@RequestMapping(path = "/api/cards", produces = {MediaType.APPLICATION_JSON_VALUE})
+@Validated
+public class CardAuthorizationController {
+
+    private final CardAuthorizationService cardAuthorizationService;
+
+    public CardAuthorizationController(CardAuthorizationService cardAuthorizationService) {
+        this.cardAuthorizationService = cardAuthorizationService;
+    }
+
+    @Operation(
+            summary = "Authorize Card Spend REST API",
+            description = "REST API to approve a spend on a card against its available amount. Approved spends are "
+                    + "booked to the card details periodically"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<CardAuthorizationDto> authorize(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits")
+            String cardNumber,
+
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        CardAuthorizationDto authorization = cardAuthorizationService.authorize(cardNumber, amount);
+        return ResponseEntity.status(HttpStatus.OK).body(authorization);
+    }
+}
@@ -13,7 +13,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -23,6 +26,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
+import static com.eazybytes.cards.constants.CardsConstants.MAX_BATCH_SIZE;
 import static com.eazybytes.cards.constants.CardsConstants.MESSAGE_201;
 import static com.eazybytes.cards.constants.CardsConstants.STATUS_201;
 
@@ -109,6 +115,39 @@ public class CardsController {
         return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
     }
 
+    @Operation(
+            summary = "Fetch Card Details In Bulk REST API",
+            description = "REST API to fetch card details for a list of up to " + MAX_BATCH_SIZE
+                    + " mobile numbers in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/fetchBatch")
+    public ResponseEntity<List<CardsDto>> fetchCardDetailsBatch(
+            @RequestHeader("eazybank-correlation-id")
+            String correlationId,
+
+            @RequestBody
+            @NotEmpty(message = "Mobile numbers can not be empty")
+            @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " mobile numbers per call")
+            List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        LOGGER.debug("fetchCardDetailsBatch method start for {} mobile numbers", mobileNumbers.size());
+        List<CardsDto> cardsDtos = cardsService.fetchCards(mobileNumbers);
+        LOGGER.debug("fetchCardDetailsBatch method end");
+        return ResponseEntity.status(HttpStatus.OK).body(cardsDtos);
+    }
+
     @Operation(
             summary = "Update Card Details REST API",
             description = "REST API to update card details based on a card number"
@@ -185,6 +224,84 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Debit Card REST API",
+            description = "REST API to spend an amount on a card, provided enough of its limit is still available"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PatchMapping("/debit")
+    public ResponseEntity<ResponseDto> debitCard(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits")
+            String cardNumber,
+
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        cardsService.debitCard(cardNumber, amount);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+    }
+
+    @Operation(
+            summary = "Credit Card REST API",
+            description = "REST API to return an amount to a card, up to the amount used so far"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PatchMapping("/credit")
+    public ResponseEntity<ResponseDto> creditCard(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "CardNumber must be 12 digits")
+            String cardNumber,
+
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        cardsService.creditCard(cardNumber, amount);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+    }
+
     @Operation(
             summary = "Get Build Info REST API",
             description = "REST API to get the build version information of the Cards service"
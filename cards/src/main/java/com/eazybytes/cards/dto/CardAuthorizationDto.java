@@ -0,0 +1,29 @@
+package com.eazybytes.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        name = "CardAuthorization",
+        description = "Schema to hold the outcome of an approved card authorization"
+)
+public record CardAuthorizationDto(
+        @Schema(
+                description = "Identifier of the authorization in the ledger", example = "1024"
+        )
+        long authorizationId,
+
+        @Schema(
+                description = "Card Number of the customer", example = "100646930341"
+        )
+        String cardNumber,
+
+        @Schema(
+                description = "Authorized amount", example = "250"
+        )
+        int amount,
+
+        @Schema(
+                description = "Amount still available on the card after this authorization", example = "99750"
+        )
+        int availableAmount) {
+}
@@ -2,6 +2,7 @@ package com.eazybytes.cards.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -41,14 +42,21 @@ public class CardsDto {
 
     @PositiveOrZero(message = "Total amount used should be equal or greater than zero")
     @Schema(
-            description = "Total amount used by a Customer", example = "1000"
+            description = "Total amount used by a Customer; ignored on update", example = "1000"
     )
     private int amountUsed;
 
     @PositiveOrZero(message = "Total available amount should be equal or greater than zero")
     @Schema(
-            description = "Total available amount against a card", example = "90000"
+            description = "Total available amount against a card; ignored on update", example = "90000"
     )
     private int availableAmount;
 
+    @Schema(
+            description = "Version of the card as last read; updates made from an older version are rejected",
+            example = "3"
+    )
+    @NotNull(message = "Version can not be null; send the version returned by the fetch")
+    private Long version;
+
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "card_authorization_checkpoint")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthorizationCheckpoint {
+    @Id
+    @Column(name = "ledger_id")
+    private String ledgerId;
+
+    @Column(name = "ledger_sequence")
+    private Long ledgerSequence;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Entity
@@ -30,4 +31,7 @@ public class Cards extends BaseEntity {
 
     private int availableAmount;
 
+    @Version
+    private Long version;
+
 }
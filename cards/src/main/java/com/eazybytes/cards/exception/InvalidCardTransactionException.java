@@ -0,0 +1,11 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCardTransactionException extends RuntimeException {
+    public InvalidCardTransactionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,31 @@
+package com.eazybytes.cards.generator;
+
+import com.eazybytes.idgenerator.BlockIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Number space of the card numbers handed out by the shared {@link BlockIdGenerator}.
+ * <p>
+ * Card numbers used to be drawn at random from [100000000000, 100900000000), so new
+ * numbers are taken from [101000000000, 1000000000000): still 12 digits, and never
+ * clashing with existing rows.
+ */
+@Configuration
+public class CardNumberGeneratorConfig {
+
+    private static final String BLOCK_NAME = "cards";
+    private static final long FIRST_NUMBER = 101_000_000_000L;
+    private static final long CAPACITY = 899_000_000_000L;
+    // Coprime with CAPACITY, so (sequence * MULTIPLIER) % CAPACITY is a permutation
+    private static final long MULTIPLIER = 9_999_991L;
+
+    @Bean
+    public BlockIdGenerator cardNumberGenerator(DataSource dataSource,
+            @Value("${id-generator.block-size:100}") int blockSize) {
+        return new BlockIdGenerator(dataSource, BLOCK_NAME, FIRST_NUMBER, CAPACITY, MULTIPLIER, blockSize);
+    }
+}
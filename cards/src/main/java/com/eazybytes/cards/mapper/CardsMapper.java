@@ -12,16 +12,18 @@ public class CardsMapper {
         cardsDto.setTotalLimit(cards.getTotalLimit());
         cardsDto.setAvailableAmount(cards.getAvailableAmount());
         cardsDto.setAmountUsed(cards.getAmountUsed());
+        cardsDto.setVersion(cards.getVersion());
         return cardsDto;
     }
 
+    /**
+     * Maps the card details a caller may update. The limit and the amounts are left alone: only
+     * {@code CardAuthorizationService} changes them.
+     */
     public static Cards mapToCards(CardsDto cardsDto, Cards cards) {
         cards.setCardNumber(cardsDto.getCardNumber());
         cards.setCardType(cardsDto.getCardType());
         cards.setMobileNumber(cardsDto.getMobileNumber());
-        cards.setTotalLimit(cardsDto.getTotalLimit());
-        cards.setAvailableAmount(cardsDto.getAvailableAmount());
-        cards.setAmountUsed(cardsDto.getAmountUsed());
         return cards;
     }
 
@@ -0,0 +1,9 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.AuthorizationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuthorizationCheckpointRepository extends JpaRepository<AuthorizationCheckpoint, String> {
+}
@@ -1,9 +1,16 @@
 package com.eazybytes.cards.repository;
 
 import com.eazybytes.cards.entity.Cards;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,34 @@ public interface CardsRepository extends JpaRepository<Cards, Long> {
     Optional<Cards> findByMobileNumber(String mobileNumber);
 
     Optional<Cards> findByCardNumber(String cardNumber);
+
+    List<Cards> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    List<Cards> findByCardNumberIn(Collection<String> cardNumbers);
+
+    /**
+     * Deletes the card of a customer in a single statement, without loading it first.
+     *
+     * @return the number of deleted rows, 0 if the customer has no card
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Cards c WHERE c.mobileNumber = :mobileNumber")
+    int deleteByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    /**
+     * Books the total of authorizations that were already approved against a card, credits
+     * counting negative. The amounts are not checked again: that happened on authorization.
+     *
+     * @return 1 if the card was updated, 0 if it does not exist
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cards c SET c.amountUsed = c.amountUsed + :amount, c.availableAmount = c.availableAmount - :amount, "
+            + "c.version = c.version + 1, c.updatedAt = :updatedAt, c.updatedBy = :updatedBy "
+            + "WHERE c.cardNumber = :cardNumber")
+    int applyAuthorizedAmount(@Param("cardNumber") String cardNumber,
+                              @Param("amount") int amount,
+                              @Param("updatedAt") LocalDateTime updatedAt,
+                              @Param("updatedBy") String updatedBy);
 }
@@ -2,6 +2,8 @@ package com.eazybytes.cards.service;
 
 import com.eazybytes.cards.dto.CardsDto;
 
+import java.util.List;
+
 public interface ICardsService {
     /**
      * Service method to create a new card for a customer.
@@ -18,6 +20,15 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     * Service method to fetch card details for many customers in a single lookup.
+     * Mobile numbers without a card are skipped.
+     *
+     * @param mobileNumbers The mobile numbers of the customers.
+     * @return List of CardsDto for the mobile numbers that have a card.
+     */
+    List<CardsDto> fetchCards(List<String> mobileNumbers);
+
     /**
      * Service method to update card details for a customer.
      *
@@ -33,4 +44,20 @@ public interface ICardsService {
      * @return boolean indicating success or failure of the delete operation.
      */
     boolean deleteCard(String mobileNumber);
+
+    /**
+     * Service method to spend an amount on a card.
+     *
+     * @param cardNumber The card number.
+     * @param amount     The amount to spend, taken from the available amount.
+     */
+    void debitCard(String cardNumber, int amount);
+
+    /**
+     * Service method to give an amount back to a card, e.g. for a refund or a repayment.
+     *
+     * @param cardNumber The card number.
+     * @param amount     The amount to return to the available amount.
+     */
+    void creditCard(String cardNumber, int amount);
 }
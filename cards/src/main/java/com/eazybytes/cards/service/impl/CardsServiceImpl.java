@@ -1,5 +1,6 @@
 package com.eazybytes.cards.service.impl;
 
+import com.eazybytes.cards.authorization.CardAuthorizationService;
 import com.eazybytes.cards.dto.CardsDto;
 import com.eazybytes.cards.entity.Cards;
 import com.eazybytes.cards.exception.CardAlreadyExistsException;
@@ -7,11 +8,16 @@ import com.eazybytes.cards.exception.ResourceNotFoundException;
 import com.eazybytes.cards.mapper.CardsMapper;
 import com.eazybytes.cards.repository.CardsRepository;
 import com.eazybytes.cards.service.ICardsService;
+import com.eazybytes.idgenerator.BlockIdGenerator;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.Random;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 import static com.eazybytes.cards.constants.CardsConstants.CREDIT_CARD;
 import static com.eazybytes.cards.constants.CardsConstants.NEW_CARD_LIMIT;
@@ -20,6 +26,8 @@ import static com.eazybytes.cards.constants.CardsConstants.NEW_CARD_LIMIT;
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
     private final CardsRepository cardsRepository;
+    private final BlockIdGenerator cardNumberGenerator;
+    private final CardAuthorizationService cardAuthorizationService;
 
     /**
      * Service method to create a new card for a customer.
@@ -28,17 +36,30 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards = cardsRepository.findByMobileNumber(mobileNumber);
-        if (optionalCards.isPresent()) {
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber " + mobileNumber);
+        try {
+            cardsRepository.save(createNewCard(mobileNumber));
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateMobileNumber(ex)) {
+                throw new CardAlreadyExistsException("Card already registered with given mobileNumber " + mobileNumber);
+            }
+            throw ex;
         }
-        cardsRepository.save(createNewCard(mobileNumber));
+    }
+
+    /**
+     * The unique index on mobile_number turns a concurrent second create into a duplicate-key
+     * error, so no existence check is needed up front.
+     */
+    private static boolean isDuplicateMobileNumber(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains("mobile_number");
     }
 
     private Cards createNewCard(String mobileNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(Long.toString(cardNumberGenerator.next()));
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CREDIT_CARD);
         newCard.setTotalLimit(NEW_CARD_LIMIT);
@@ -62,7 +83,22 @@ public class CardsServiceImpl implements ICardsService {
     }
 
     /**
-     * Service method to update card details for a customer.
+     * Service method to fetch card details for many customers in a single lookup.
+     * Mobile numbers without a card are skipped.
+     *
+     * @param mobileNumbers The mobile numbers of the customers.
+     * @return List of CardsDto for the mobile numbers that have a card.
+     */
+    @Override
+    public List<CardsDto> fetchCards(List<String> mobileNumbers) {
+        return cardsRepository.findByMobileNumberIn(mobileNumbers).stream()
+                .map(cards -> CardsMapper.mapToCardsDto(cards, new CardsDto()))
+                .toList();
+    }
+
+    /**
+     * Service method to update card details for a customer. The used and available amounts in the
+     * request are ignored; a new total limit moves the available amount by the difference.
      *
      * @param cardsDto The CardsDto containing updated card details.
      * @return boolean indicating success or failure of the update operation.
@@ -71,8 +107,16 @@ public class CardsServiceImpl implements ICardsService {
     public boolean updateCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
+        // Hibernate checks the version it loaded, not one set on the entity, so the caller's is compared here
+        if (!Objects.equals(cardsDto.getVersion(), cards.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Cards.class, cards.getCardId());
+        }
         CardsMapper.mapToCards(cardsDto, cards);
-        cardsRepository.save(cards);
+        if (cardsDto.getTotalLimit() != cards.getTotalLimit()) {
+            cardAuthorizationService.changeLimit(cards, cardsDto.getTotalLimit());
+        } else {
+            cardsRepository.save(cards);
+        }
         return true;
     }
 
@@ -84,10 +128,34 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public boolean deleteCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
-        );
-        cardsRepository.deleteById(cards.getCardId());
+        if (cardsRepository.deleteByMobileNumber(mobileNumber) == 0) {
+            throw new ResourceNotFoundException("Card", "mobileNumber", mobileNumber);
+        }
         return true;
     }
+
+    /**
+     * Service method to spend an amount on a card. It is authorized against the card's in-memory
+     * balance like any other spend, so it can never take the card below zero, and is booked to the
+     * {@code cards} row with the next checkpoint.
+     *
+     * @param cardNumber The card number.
+     * @param amount     The amount to spend, taken from the available amount.
+     */
+    @Override
+    public void debitCard(String cardNumber, int amount) {
+        cardAuthorizationService.authorize(cardNumber, amount);
+    }
+
+    /**
+     * Service method to give an amount back to a card, e.g. for a refund or a repayment. Like
+     * {@link #debitCard(String, int)} it goes through the card's in-memory balance.
+     *
+     * @param cardNumber The card number.
+     * @param amount     The amount to return to the available amount.
+     */
+    @Override
+    public void creditCard(String cardNumber, int amount) {
+        cardAuthorizationService.credit(cardNumber, amount);
+    }
 }
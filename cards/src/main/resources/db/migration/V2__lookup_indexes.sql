@@ -0,0 +1,27 @@
+-- Databases that predate the migrations may hold duplicates the unique constraints below would
+-- reject. Stop with a readable error rather than a bare duplicate key failure; the README describes
+-- the cleanup.
+DROP PROCEDURE IF EXISTS `check_cards_duplicates`;
+
+DELIMITER //
+
+CREATE PROCEDURE `check_cards_duplicates`()
+BEGIN
+    IF EXISTS (SELECT 1 FROM `cards` GROUP BY `mobile_number` HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'cards.mobile_number has duplicates; resolve them before V2 adds its unique constraint';
+    END IF;
+    IF EXISTS (SELECT 1 FROM `cards` GROUP BY `card_number` HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'cards.card_number has duplicates; resolve them before V2 adds its unique constraint';
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL `check_cards_duplicates`();
+DROP PROCEDURE `check_cards_duplicates`;
+
+-- A customer holds at most one card, and both columns are used for lookups
+ALTER TABLE `cards` ADD CONSTRAINT `uk_cards_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `cards` ADD CONSTRAINT `uk_cards_card_number` UNIQUE (`card_number`);
@@ -0,0 +1,2 @@
+-- Optimistic locking for read-modify-write updates; the atomic debit and credit statements bump it too
+ALTER TABLE `cards` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
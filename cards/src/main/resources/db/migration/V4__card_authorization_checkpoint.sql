@@ -0,0 +1,5 @@
+-- Last authorization ledger sequence folded into the cards table, per ledger
+CREATE TABLE IF NOT EXISTS `card_authorization_checkpoint` (
+                                                               `ledger_id` varchar(50) NOT NULL PRIMARY KEY,
+                                                               `ledger_sequence` bigint NOT NULL
+    );
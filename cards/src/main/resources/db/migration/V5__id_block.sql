@@ -0,0 +1,7 @@
+-- Card numbers are handed out in blocks reserved from this table by the id-generator library
+CREATE TABLE IF NOT EXISTS `id_block` (
+                                          `name` varchar(50) NOT NULL PRIMARY KEY,
+                                          `next_value` bigint NOT NULL
+    );
+
+INSERT IGNORE INTO `id_block` (`name`, `next_value`) VALUES ('cards', 0);
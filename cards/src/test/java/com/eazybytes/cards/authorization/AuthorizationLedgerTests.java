@@ -0,0 +1,91 @@
+package com.eazybytes.cards.authorization;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorizationLedgerTests {
+
+    @TempDir
+    Path directory;
+
+    private AuthorizationLedger ledger;
+
+    @AfterEach
+    void tearDown() {
+        if (ledger != null) {
+            ledger.close();
+        }
+    }
+
+    @Test
+    void replaysEveryEntryBeforeATornTail() throws Exception {
+        ledger = new AuthorizationLedger(directory, true);
+        ledger.replay(0L);
+        ledger.open(1L);
+        append(entry(1L), entry(2L), entry(3L));
+        ledger.close();
+        ledger = null;
+        String torn = entry(4L).encode();
+        Files.writeString(onlySegment(), torn.substring(0, torn.length() / 2), StandardCharsets.US_ASCII,
+                StandardOpenOption.APPEND);
+
+        AuthorizationLedger.Replay replay = new AuthorizationLedger(directory, true).replay(1L);
+
+        assertThat(replay.entries()).extracting(LedgerEntry::sequence).containsExactly(2L, 3L);
+        assertThat(replay.lastSequence()).isEqualTo(3L);
+    }
+
+    @Test
+    void deletesTheSegmentsBeforeTheSequenceItRotatedTo() throws Exception {
+        ledger = new AuthorizationLedger(directory, true);
+        ledger.replay(0L);
+        ledger.open(1L);
+        append(entry(1L), entry(2L));
+
+        ledger.rotate(3L).get(5, TimeUnit.SECONDS);
+        append(entry(3L));
+        ledger.deleteSegmentsBefore(3L);
+
+        assertThat(segmentNames()).containsExactly("ledger-00000000000000000003.log");
+        assertThat(new AuthorizationLedger(directory, true).replay(0L).entries())
+                .extracting(LedgerEntry::sequence).containsExactly(3L);
+    }
+
+    private void append(LedgerEntry... entries) throws Exception {
+        List<CompletableFuture<Void>> durable = Stream.of(entries).map(ledger::append).toList();
+        CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new))
+                .get(Duration.ofSeconds(5).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.reduce((first, second) -> {
+                throw new IllegalStateException("More than one segment in " + directory);
+            }).orElseThrow();
+        }
+    }
+
+    private List<String> segmentNames() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.map(segment -> segment.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static LedgerEntry entry(long sequence) {
+        return new LedgerEntry(sequence, "100646930341", 100, 1_700_000_000_000L);
+    }
+}
@@ -0,0 +1,139 @@
+package com.eazybytes.cards.authorization;
+
+import com.eazybytes.cards.audit.AuditAwareImpl;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.exception.InvalidCardTransactionException;
+import com.eazybytes.cards.repository.AuthorizationCheckpointRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CardAuthorizationServiceTests {
+
+    private static final String CARD_NUMBER = "100646930341";
+
+    @TempDir
+    Path ledgerDir;
+
+    private final CardsRepository cardsRepository = mock(CardsRepository.class);
+    private final AuthorizationCheckpointRepository checkpointRepository = mock(AuthorizationCheckpointRepository.class);
+    private final Cards cards = new Cards();
+    private CardAuthorizationService service;
+
+    @BeforeEach
+    void setUp() {
+        cards.setCardNumber(CARD_NUMBER);
+        cards.setTotalLimit(1000);
+        cards.setAvailableAmount(1000);
+        cards.setAmountUsed(0);
+        when(cardsRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(cards));
+        when(checkpointRepository.findById("cards-test")).thenReturn(Optional.empty());
+        service = service("cards-test");
+        service.recover();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsSpendsAndCreditsBeyondTheInMemoryBalance() {
+        assertThat(service.authorize(CARD_NUMBER, 600).availableAmount()).isEqualTo(400);
+
+        assertThatThrownBy(() -> service.authorize(CARD_NUMBER, 401))
+                .isInstanceOf(InvalidCardTransactionException.class);
+        assertThatThrownBy(() -> service.credit(CARD_NUMBER, 601))
+                .isInstanceOf(InvalidCardTransactionException.class);
+        assertThat(service.credit(CARD_NUMBER, 600).availableAmount()).isEqualTo(1000);
+    }
+
+    @Test
+    void keepsTheAmountsPendingWhenBookingACheckpointFails() {
+        service.authorize(CARD_NUMBER, 300);
+        when(cardsRepository.applyAuthorizedAmount(eq(CARD_NUMBER), anyInt(), any(), any()))
+                .thenThrow(new QueryTimeoutException("cardsdb is down"))
+                .thenReturn(1);
+
+        service.checkpoint();
+
+        verify(checkpointRepository, never()).save(any());
+        // still 300 used and 700 available, whether or not the row has the amount
+        assertThatThrownBy(() -> service.authorize(CARD_NUMBER, 701))
+                .isInstanceOf(InvalidCardTransactionException.class);
+        assertThatThrownBy(() -> service.credit(CARD_NUMBER, 301))
+                .isInstanceOf(InvalidCardTransactionException.class);
+
+        service.authorize(CARD_NUMBER, 100);
+        service.checkpoint();
+
+        verify(cardsRepository).applyAuthorizedAmount(eq(CARD_NUMBER), eq(400), any(), any());
+        verify(checkpointRepository).save(any());
+    }
+
+    @Test
+    void movesTheRowAndTheBalanceByALimitChange() {
+        service.authorize(CARD_NUMBER, 300);
+
+        service.changeLimit(cards, 1500);
+
+        verify(cardsRepository).save(cards);
+        assertThat(cards.getTotalLimit()).isEqualTo(1500);
+        assertThat(cards.getAvailableAmount()).isEqualTo(1500);
+        // the 300 authorized before is still pending on top of the new limit
+        assertThat(service.authorize(CARD_NUMBER, 1200).availableAmount()).isZero();
+    }
+
+    @Test
+    void refusesALimitBelowTheAmountUsed() {
+        service.authorize(CARD_NUMBER, 600);
+
+        assertThatThrownBy(() -> service.changeLimit(cards, 500))
+                .isInstanceOf(InvalidCardTransactionException.class);
+
+        verify(cardsRepository, never()).save(any());
+        assertThat(cards.getTotalLimit()).isEqualTo(1000);
+        assertThat(service.authorize(CARD_NUMBER, 400).availableAmount()).isZero();
+    }
+
+    @Test
+    void leavesTheBalanceAloneWhenSavingTheLimitFails() {
+        when(cardsRepository.save(cards)).thenThrow(new ObjectOptimisticLockingFailureException(Cards.class, 1L));
+
+        assertThatThrownBy(() -> service.changeLimit(cards, 1500))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThatThrownBy(() -> service.authorize(CARD_NUMBER, 1001))
+                .isInstanceOf(InvalidCardTransactionException.class);
+    }
+
+    @Test
+    void refusesToStartWithoutALedgerId() {
+        assertThatIllegalStateException().isThrownBy(() -> service(""));
+        assertThatIllegalStateException().isThrownBy(() -> service("x".repeat(51)));
+    }
+
+    private CardAuthorizationService service(String ledgerId) {
+        return new CardAuthorizationService(cardsRepository, checkpointRepository, new AuditAwareImpl(),
+                mock(PlatformTransactionManager.class), ledgerDir.toString(), ledgerId, false, 4);
+    }
+}
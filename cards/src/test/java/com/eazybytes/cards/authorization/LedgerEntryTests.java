@@ -0,0 +1,41 @@
+package com.eazybytes.cards.authorization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerEntryTests {
+
+    @Test
+    void decodesWhatItEncodes() {
+        LedgerEntry entry = new LedgerEntry(42L, "100646930341", 2500, 1_700_000_000_000L);
+
+        String line = entry.encode();
+
+        assertThat(line).endsWith("\n");
+        assertThat(LedgerEntry.decode(line.strip())).isEqualTo(entry);
+    }
+
+    @Test
+    void decodesACreditWithANegativeAmount() {
+        LedgerEntry entry = new LedgerEntry(43L, "100646930341", -500, 1_700_000_000_000L);
+
+        assertThat(LedgerEntry.decode(entry.encode().strip())).isEqualTo(entry);
+    }
+
+    @Test
+    void rejectsALineWhoseChecksumDoesNotMatch() {
+        String line = new LedgerEntry(42L, "100646930341", 2500, 1_700_000_000_000L).encode().strip();
+
+        assertThat(LedgerEntry.decode(line.replace(",2500,", ",9500,"))).isNull();
+    }
+
+    @Test
+    void rejectsATornLine() {
+        String line = new LedgerEntry(42L, "100646930341", 2500, 1_700_000_000_000L).encode().strip();
+
+        assertThat(LedgerEntry.decode(line.substring(0, line.length() - 3))).isNull();
+        assertThat(LedgerEntry.decode(line.substring(0, 10))).isNull();
+        assertThat(LedgerEntry.decode("")).isNull();
+    }
+}
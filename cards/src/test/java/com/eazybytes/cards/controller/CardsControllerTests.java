@@ -0,0 +1,145 @@
+package com.eazybytes.cards.controller;
+
+import com.eazybytes.cards.authorization.CardAuthorizationService;
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsContactInfoDto;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.exception.GlobalExceptionHandler;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.service.impl.CardsServiceImpl;
+import com.eazybytes.idgenerator.BlockIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CardsControllerTests {
+
+    private static final String CARD_NUMBER = "100646930341";
+
+    private final CardsRepository cardsRepository = mock(CardsRepository.class);
+    private final CardAuthorizationService cardAuthorizationService = mock(CardAuthorizationService.class);
+    private final Cards cards = new Cards();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        CardsServiceImpl cardsService = new CardsServiceImpl(cardsRepository, mock(BlockIdGenerator.class),
+                cardAuthorizationService);
+        mockMvc = MockMvcBuilders.standaloneSetup(validated(new CardsController(cardsService, mock(CardsContactInfoDto.class))))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        cards.setCardId(1L);
+        cards.setCardNumber(CARD_NUMBER);
+        cards.setTotalLimit(100000);
+        cards.setAmountUsed(20000);
+        cards.setAvailableAmount(80000);
+        cards.setVersion(4L);
+        when(cardsRepository.findByCardNumber(CARD_NUMBER)).thenReturn(Optional.of(cards));
+    }
+
+    @Test
+    void rejectsAnUpdateMadeFromAnOlderVersionWithConflict() throws Exception {
+        mockMvc.perform(put("/api/cards/update").contentType(MediaType.APPLICATION_JSON).content(update(3)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("CONFLICT"));
+
+        verify(cardsRepository, never()).save(any());
+    }
+
+    @Test
+    void appliesAnUpdateMadeFromTheCurrentVersion() throws Exception {
+        mockMvc.perform(put("/api/cards/update").contentType(MediaType.APPLICATION_JSON).content(update(4)))
+                .andExpect(status().isOk());
+
+        verify(cardsRepository).save(cards);
+        verifyNoInteractions(cardAuthorizationService);
+    }
+
+    @Test
+    void ignoresTheAmountsSentWithAnUpdate() throws Exception {
+        mockMvc.perform(put("/api/cards/update").contentType(MediaType.APPLICATION_JSON).content(update(4)))
+                .andExpect(status().isOk());
+
+        assertThat(cards.getAmountUsed()).isEqualTo(20000);
+        assertThat(cards.getAvailableAmount()).isEqualTo(80000);
+    }
+
+    @Test
+    void changesTheLimitThroughTheAuthorizationService() throws Exception {
+        mockMvc.perform(put("/api/cards/update").contentType(MediaType.APPLICATION_JSON).content(update(4, 150000)))
+                .andExpect(status().isOk());
+
+        verify(cardAuthorizationService).changeLimit(cards, 150000);
+        verify(cardsRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsAnUpdateWithoutAVersionWithBadRequest() throws Exception {
+        String withoutVersion = """
+                {"mobileNumber": "4354437687", "cardNumber": "%s", "cardType": "Credit Card", "totalLimit": 100000,
+                 "amountUsed": 1000, "availableAmount": 99000}
+                """.formatted(CARD_NUMBER);
+
+        mockMvc.perform(put("/api/cards/update").contentType(MediaType.APPLICATION_JSON).content(withoutVersion))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.version").exists());
+
+        verify(cardsRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsABatchLargerThanTheMaximumWithBadRequest() throws Exception {
+        mockMvc.perform(post("/api/cards/fetchBatch").header("eazybank-correlation-id", "test")
+                        .contentType(MediaType.APPLICATION_JSON).content(mobileNumbers(CardsConstants.MAX_BATCH_SIZE + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+
+        verifyNoInteractions(cardsRepository);
+    }
+
+    private static String mobileNumbers(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "\"%010d\"".formatted(i))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /** Standalone MockMvc has no proxy, so apply the {@code @Validated} method validation by hand. */
+    private static Object validated(Object controller) {
+        ProxyFactory proxyFactory = new ProxyFactory(controller);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor());
+        return proxyFactory.getProxy();
+    }
+
+    private static String update(long version) {
+        return update(version, 100000);
+    }
+
+    private static String update(long version, int totalLimit) {
+        return """
+                {"mobileNumber": "4354437687", "cardNumber": "%s", "cardType": "Credit Card", "totalLimit": %d,
+                 "amountUsed": 1000, "availableAmount": 99000, "version": %d}
+                """.formatted(CARD_NUMBER, totalLimit, version);
+    }
+}
@@ -1,24 +1,33 @@
 package com.eazybytes.gatewayserver;
 
+import com.eazybytes.gatewayserver.cache.ResponseCacheGatewayFilterFactory;
+import com.eazybytes.gatewayserver.concurrency.AdaptiveConcurrencyGatewayFilterFactory;
+import com.eazybytes.gatewayserver.hedging.HedgingGatewayFilterFactory;
+import com.eazybytes.gatewayserver.ratelimit.JwtClaimKeyResolver;
+import com.eazybytes.gatewayserver.ratelimit.LocalTokenBucketRateLimiter;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyEngine;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
 import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
-import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpMethod;
-import reactor.core.publisher.Mono;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties(RateLimitPolicyProperties.class)
 public class GatewayserverApplication {
 
     public static void main(String[] args) {
@@ -26,29 +35,46 @@ public class GatewayserverApplication {
     }
 
     @Bean
-    public RouteLocator eazyBankRouteConfig(RouteLocatorBuilder builder) {
+    public RouteLocator eazyBankRouteConfig(RouteLocatorBuilder builder, LocalTokenBucketRateLimiter rateLimiter,
+                                            KeyResolver userKeyResolver,
+                                            HedgingGatewayFilterFactory hedgingFilterFactory,
+                                            AdaptiveConcurrencyGatewayFilterFactory concurrencyFilterFactory,
+                                            ResponseCacheGatewayFilterFactory responseCacheFilterFactory) {
+        AdaptiveConcurrencyGatewayFilterFactory.Config concurrencyConfig =
+                new AdaptiveConcurrencyGatewayFilterFactory.Config();
+        ResponseCacheGatewayFilterFactory.Config responseCacheConfig = new ResponseCacheGatewayFilterFactory.Config()
+                .cache("/eazybank/*/api/*/build-info", Duration.ofMinutes(10))
+                .cache("/eazybank/*/api/*/java-version", Duration.ofMinutes(10))
+                .cache("/eazybank/*/api/*/contact-info", Duration.ofMinutes(5))
+                .cacheUntilWrite("/eazybank/*/api/*/fetch", Duration.ofSeconds(10));
         return builder.routes()
-                .route(p -> p
+                .route("accounts", p -> p
                         .path("/eazybank/accounts/**")
                         .filters(f -> f.rewritePath("/eazybank/accounts/(?<segment>.*)", "/${segment}")
-                                .addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
+                                .filter(responseCacheFilterFactory.apply(responseCacheConfig))
+                                .filter(concurrencyFilterFactory.apply(concurrencyConfig))
                                 .circuitBreaker(config -> config.setName("accountsCircuitBreaker")
                                         .setFallbackUri("forward:/contactSupport")))
                         .uri("lb://ACCOUNTS"))
-                .route(p -> p
+                .route("loans", p -> p
                         .path("/eazybank/loans/**")
                         .filters(f -> f.rewritePath("/eazybank/loans/(?<segment>.*)", "/${segment}")
-                                .addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
+                                .filter(responseCacheFilterFactory.apply(responseCacheConfig))
+                                .filter(concurrencyFilterFactory.apply(concurrencyConfig))
                                 .retry(retryConfig -> retryConfig.setRetries(3)
                                         .setMethods(HttpMethod.GET)
-                                        .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, true)))
+                                        .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, true))
+                                .filter(hedgingFilterFactory.apply(new HedgingGatewayFilterFactory.Config()
+                                        .setPercentile(0.95)
+                                        .setBudgetPercent(10))))
                         .uri("lb://LOANS"))
-                .route(p -> p
+                .route("cards", p -> p
                         .path("/eazybank/cards/**")
                         .filters(f -> f.rewritePath("/eazybank/cards/(?<segment>.*)", "/${segment}")
-                                .addResponseHeader("X-Response-Time", LocalDateTime.now().toString())
-                                .requestRateLimiter(config -> config.setRateLimiter(redisRateLimiter())
-                                        .setKeyResolver(userKeyResolver())))
+                                .filter(responseCacheFilterFactory.apply(responseCacheConfig))
+                                .filter(concurrencyFilterFactory.apply(concurrencyConfig))
+                                .requestRateLimiter(config -> config.setRateLimiter(rateLimiter)
+                                        .setKeyResolver(userKeyResolver)))
                         .uri("lb://CARDS"))
                 .build();
     }
@@ -60,15 +86,18 @@ public class GatewayserverApplication {
                 .timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(4)).build()).build());
     }
 
+    /**
+     * Primary so that it wins over the RedisRateLimiter the gateway auto-configures when Redis is on the classpath.
+     */
     @Bean
-    public RedisRateLimiter redisRateLimiter() {
-        return new RedisRateLimiter(1, 1, 1);
+    @Primary
+    public LocalTokenBucketRateLimiter localTokenBucketRateLimiter(RateLimitPolicyEngine policyEngine) {
+        return new LocalTokenBucketRateLimiter(1, 1, 1, policyEngine);
     }
 
     @Bean
-    KeyResolver userKeyResolver() {
-        return exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("user"))
-                .defaultIfEmpty("anonymous");
+    KeyResolver userKeyResolver(RateLimitPolicyEngine policyEngine) {
+        return new JwtClaimKeyResolver(policyEngine);
     }
 
 }
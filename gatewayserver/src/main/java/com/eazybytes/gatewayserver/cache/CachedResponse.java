@@ -0,0 +1,30 @@
+package com.eazybytes.gatewayserver.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A downstream response held by the {@link ResponseCacheGatewayFilterFactory}.
+ *
+ * @param headers       response headers worth replaying, without hop-by-hop and per-request ones
+ * @param body          the complete response body
+ * @param etag          the downstream entity tag, or one derived from the body
+ * @param group         the route and path whose writes drop this response, or null if only its TTL does
+ * @param storedAtNanos {@link System#nanoTime()} when the response was stored
+ * @param ttlNanos      how long the response may be served from the cache
+ */
+record CachedResponse(HttpHeaders headers, byte[] body, String etag, String group, long storedAtNanos, long ttlNanos) {
+
+    long ageNanos() {
+        return System.nanoTime() - storedAtNanos;
+    }
+
+    /**
+     * Rough memory footprint used to bound the cache.
+     */
+    int weight() {
+        int headerBytes = headers.entrySet().stream()
+                .mapToInt(entry -> entry.getKey().length() + entry.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        return body.length + headerBytes + etag.length() + 64;
+    }
+}
@@ -0,0 +1,392 @@
+package com.eazybytes.gatewayserver.cache;
+
+import com.eazybytes.gatewayserver.filter.FilterUtility;
+import com.eazybytes.gatewayserver.ratelimit.LocalTokenBucketRateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Serves repeated GETs for read-only endpoints from memory. Each route lists the paths it caches
+ * with a time to live; the cache key is the route, the path, the query string and the
+ * {@code Accept} and {@code Accept-Encoding} headers. The filter has to wrap the response before
+ * {@link NettyWriteResponseFilter} writes it, so it runs ahead of all other route filters and sees
+ * the path as the gateway received it, before any rewrite.
+ * <p>
+ * Only complete 200 responses without {@code Set-Cookie}, {@code no-store} or {@code private} are
+ * stored, for the route's TTL or the downstream {@code max-age} if that is shorter; circuit breaker
+ * fallbacks never are. Callers get an {@code ETag} (the downstream one, or an MD5 of the body) and
+ * a {@code max-age} for the time left, and a matching {@code If-None-Match} is answered with 304.
+ * {@code Cache-Control: no-cache} on the request forces a fresh downstream call and
+ * {@code no-store} skips the cache altogether. Paths registered with
+ * {@link Config#cacheUntilWrite} hold data that writes change: any successful write through the
+ * route drops their entries, found through an index of keys per route and path, while the other
+ * paths of the route only expire.
+ * <p>
+ * The cache is bounded by {@code response-cache.max-memory}; Caffeine evicts the least valuable
+ * entries once the bound is reached.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final List<String> VARY_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    private static final Set<String> UNCACHED_HEADERS = Set.of("content-length", "transfer-encoding", "connection",
+            "keep-alive", "date", "set-cookie", "cache-control", "expires", "pragma", "age", "etag",
+            FilterUtility.CORRELATION_ID.toLowerCase(Locale.ROOT),
+            // describe the rate limit state of the request that was stored, not the one being served
+            LocalTokenBucketRateLimiter.REMAINING_HEADER.toLowerCase(Locale.ROOT),
+            LocalTokenBucketRateLimiter.REPLENISH_RATE_HEADER.toLowerCase(Locale.ROOT),
+            LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER.toLowerCase(Locale.ROOT),
+            LocalTokenBucketRateLimiter.REQUESTED_TOKENS_HEADER.toLowerCase(Locale.ROOT));
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Set<String>> writeInvalidatedKeys = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+                                             @Value("${response-cache.max-memory:32MB}") DataSize maxMemory) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.weight())
+                .expireAfter(new TtlExpiry())
+                .removalListener((String key, CachedResponse response, RemovalCause cause) -> unindex(key, response))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<CachedPath> cachedPaths = new ArrayList<>();
+        config.getPaths().forEach((pattern, ttl) -> cachedPaths.add(new CachedPath(
+                PathPatternParser.defaultInstance.parse(pattern), ttl, config.getInvalidatedByWrites().contains(pattern))));
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            ServerHttpRequest request = exchange.getRequest();
+            if (route == null) {
+                return chain.filter(exchange);
+            }
+            if (!HttpMethod.GET.equals(request.getMethod())) {
+                if (HttpMethod.HEAD.equals(request.getMethod()) || HttpMethod.OPTIONS.equals(request.getMethod())) {
+                    return chain.filter(exchange);
+                }
+                return chain.filter(exchange)
+                        .then(Mono.fromRunnable(() -> invalidateAfterWrite(exchange, route, cachedPaths)));
+            }
+
+            CachedPath cachedPath = cachedPathFor(cachedPaths, request);
+            String requestCacheControl = String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL))
+                    .toLowerCase(Locale.ROOT);
+            if (cachedPath == null || requestCacheControl.contains("no-store")) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(route, request);
+            if (!requestCacheControl.contains("no-cache")) {
+                CachedResponse cached = cache.getIfPresent(key);
+                if (cached != null) {
+                    return serve(exchange, route, cached);
+                }
+            }
+            count(route, "miss");
+            String group = cachedPath.invalidatedByWrites() ? group(route, cachedPath) : null;
+            CachingResponse response = new CachingResponse(exchange, key, group, cachedPath.ttl());
+            return chain.filter(exchange.mutate().response(response).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, Route route, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.addAll(cached.headers());
+        long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(cached.ageNanos());
+        long maxAgeSeconds = Math.max(0L, TimeUnit.NANOSECONDS.toSeconds(cached.ttlNanos()) - ageSeconds);
+        headers.setETag(cached.etag());
+        headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)));
+        headers.set(HttpHeaders.AGE, Long.toString(ageSeconds));
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.etag())) {
+            count(route, "not_modified");
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        count(route, "hit");
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void invalidateAfterWrite(ServerWebExchange exchange, Route route, List<CachedPath> cachedPaths) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || !status.is2xxSuccessful()) {
+            return;
+        }
+        for (CachedPath cachedPath : cachedPaths) {
+            if (cachedPath.invalidatedByWrites()) {
+                Set<String> keys = writeInvalidatedKeys.get(group(route, cachedPath));
+                if (keys != null) {
+                    cache.invalidateAll(List.copyOf(keys));
+                }
+            }
+        }
+    }
+
+    private void index(String key, String group) {
+        writeInvalidatedKeys.computeIfAbsent(group, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private void unindex(String key, CachedResponse response) {
+        if (response == null || response.group() == null) {
+            return;
+        }
+        Set<String> keys = writeInvalidatedKeys.get(response.group());
+        // the listener runs after the removal, so a response stored again meanwhile has to stay indexed
+        if (keys != null && keys.remove(key) && cache.asMap().containsKey(key)) {
+            keys.add(key);
+        }
+    }
+
+    private void count(Route route, String outcome) {
+        meterRegistry.counter("gateway.response.cache.requests", "route", route.getId(), "outcome", outcome)
+                .increment();
+    }
+
+    private static CachedPath cachedPathFor(List<CachedPath> cachedPaths, ServerHttpRequest request) {
+        for (CachedPath cachedPath : cachedPaths) {
+            if (cachedPath.pattern().matches(request.getPath().pathWithinApplication())) {
+                return cachedPath;
+            }
+        }
+        return null;
+    }
+
+    private static String group(Route route, CachedPath cachedPath) {
+        return route.getId() + ' ' + cachedPath.pattern().getPatternString();
+    }
+
+    private static String cacheKey(Route route, ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : VARY_HEADERS) {
+            key.append('|').append(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        return key.toString();
+    }
+
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || weakTag(candidate).equals(weakTag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weakTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Response decorator that buffers a cacheable downstream body, stores it and then writes it on.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final String group;
+        private final Duration ttl;
+
+        CachingResponse(ServerWebExchange exchange, String key, String group, Duration ttl) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.group = group;
+            this.ttl = ttl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Duration storeFor = storeFor();
+            if (storeFor == null) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body))
+                    .defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpHeaders headers = getHeaders();
+                        String etag = headers.getETag() != null ? headers.getETag()
+                                : "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                        if (group != null) {
+                            index(key, group);
+                        }
+                        cache.put(key, new CachedResponse(replayableHeaders(headers), bytes, etag, group,
+                                System.nanoTime(), storeFor.toNanos()));
+
+                        headers.setETag(etag);
+                        headers.setCacheControl(CacheControl.maxAge(storeFor));
+                        headers.set(CACHE_STATUS_HEADER, "MISS");
+                        if (matchesIfNoneMatch(exchange.getRequest(), etag)) {
+                            headers.remove(HttpHeaders.CONTENT_LENGTH);
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            return setComplete();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        /**
+         * @return how long to keep this response, or null if it must not be cached
+         */
+        private Duration storeFor() {
+            HttpHeaders headers = getHeaders();
+            if (!HttpStatus.OK.equals(getStatusCode()) || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.getVary().contains("*")
+                    || exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+                return null;
+            }
+            String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL))
+                    .toLowerCase(Locale.ROOT);
+            if (cacheControl.contains("no-store") || cacheControl.contains("private")
+                    || cacheControl.contains("no-cache")) {
+                return null;
+            }
+            Duration maxAge = maxAge(cacheControl);
+            if (maxAge != null && maxAge.compareTo(ttl) < 0) {
+                return maxAge.isZero() ? null : maxAge;
+            }
+            return ttl;
+        }
+
+        private static Duration maxAge(String cacheControl) {
+            for (String directive : cacheControl.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.startsWith("max-age=")) {
+                    try {
+                        return Duration.ofSeconds(Long.parseLong(trimmed.substring("max-age=".length())));
+                    } catch (NumberFormatException ex) {
+                        return Duration.ZERO;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static HttpHeaders replayableHeaders(HttpHeaders headers) {
+            HttpHeaders replayable = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    replayable.addAll(name, values);
+                }
+            });
+            return HttpHeaders.readOnlyHttpHeaders(replayable);
+        }
+    }
+
+    private record CachedPath(PathPattern pattern, Duration ttl, boolean invalidatedByWrites) {
+    }
+
+    private static class TtlExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public static class Config {
+
+        private final Map<String, Duration> paths = new LinkedHashMap<>();
+        private final Set<String> invalidatedByWrites = new HashSet<>();
+
+        public Map<String, Duration> getPaths() {
+            return paths;
+        }
+
+        public Set<String> getInvalidatedByWrites() {
+            return invalidatedByWrites;
+        }
+
+        /**
+         * Caches GET responses for gateway paths matching {@code pattern} for {@code ttl}.
+         */
+        public Config cache(String pattern, Duration ttl) {
+            paths.put(pattern, ttl);
+            invalidatedByWrites.remove(pattern);
+            return this;
+        }
+
+        /**
+         * Like {@link #cache}, but a successful write through the route drops the entries right away.
+         */
+        public Config cacheUntilWrite(String pattern, Duration ttl) {
+            paths.put(pattern, ttl);
+            invalidatedByWrites.add(pattern);
+            return this;
+        }
+    }
+}
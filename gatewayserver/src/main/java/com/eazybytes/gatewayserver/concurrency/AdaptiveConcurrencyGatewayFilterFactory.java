@@ -0,0 +1,160 @@
+package com.eazybytes.gatewayserver.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Caps the requests in flight to a route's service with an {@link AdaptiveConcurrencyLimit}.
+ * Requests over the limit are answered with 503 straight away instead of queueing in the service
+ * until they time out. Apply it ahead of the rate limiter, retry and circuit breaker filters of a
+ * route, so that they run inside the permit and a rejection is never retried; only a response
+ * cache goes before it, so that cache hits take no permit.
+ * <p>
+ * A permit is held per request, while the latency samples are taken per upstream attempt by
+ * {@link AdaptiveConcurrencySampleFilter}.
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    static final String PERMIT_ATTR = AdaptiveConcurrencyGatewayFilterFactory.class.getName() + ".permit";
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyGatewayFilterFactory.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (route == null) {
+                return chain.filter(exchange);
+            }
+            AdaptiveConcurrencyLimit limit = limits.computeIfAbsent(route.getId(), id -> newLimit(id, config));
+            int inFlight = limit.tryAcquire();
+            if (inFlight < 0) {
+                count(route, "rejected");
+                logger.debug("Shedding request to route {} at concurrency limit {}", route.getId(), limit.getLimit());
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+            count(route, "accepted");
+
+            long start = System.nanoTime();
+            ConcurrencyPermit permit = new ConcurrencyPermit(limit, inFlight);
+            exchange.getAttributes().put(PERMIT_ATTR, permit);
+            return chain.filter(exchange).doFinally(signal -> {
+                limit.release();
+                // a circuit breaker that timed out cancelled the attempt, which was therefore not sampled
+                if (signal != SignalType.CANCEL && !permit.isSampled()
+                        && exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+                    permit.record(System.nanoTime() - start, true);
+                }
+            });
+        };
+    }
+
+    private AdaptiveConcurrencyLimit newLimit(String routeId, Config config) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(),
+                config.getMaxLimit(), config.getTolerance(), config.getSmoothing(), config.getBackoffRatio());
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit per route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests in flight per route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private void count(Route route, String outcome) {
+        meterRegistry.counter("gateway.concurrency.requests", "route", route.getId(), "outcome", outcome).increment();
+    }
+
+    public static class Config {
+
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double tolerance = 1.5;
+        private double smoothing = 0.2;
+        private double backoffRatio = 0.9;
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public Config setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public Config setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public Config setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public Config setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public Config setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public Config setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+    }
+}
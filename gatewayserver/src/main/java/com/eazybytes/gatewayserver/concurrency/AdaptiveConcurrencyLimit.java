@@ -0,0 +1,121 @@
+package com.eazybytes.gatewayserver.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight request limit for one downstream service, adjusted from observed latency with a
+ * gradient algorithm. A long-term average round-trip time stands for the service's unloaded
+ * latency; when the latest window of samples is slower than that, requests are queueing in the
+ * service and the limit is pulled down in proportion. When latency holds steady the limit grows
+ * by roughly the square root of itself per window. Failed or timed out calls cut the limit
+ * multiplicatively.
+ * <p>
+ * Acquiring a permit is lock-free; samples are folded into the limit once per window under a lock.
+ */
+class AdaptiveConcurrencyLimit {
+
+    private static final int WINDOW_SIZE = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    private double longRttNanos;
+    private long longSamples;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                             double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return the number of requests in flight including this one, or -1 if the limit is reached
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit once its request has completed.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records how one call to the service went.
+     *
+     * @param rttNanos        time the call spent downstream
+     * @param inFlightAtStart requests in flight when its request was admitted
+     * @param dropped         whether the call failed or timed out
+     */
+    void record(long rttNanos, int inFlightAtStart, boolean dropped) {
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+            windowDropped |= dropped;
+            if (windowSamples >= WINDOW_SIZE) {
+                update(windowRttSum / (double) windowSamples, windowMaxInFlight, windowDropped);
+                windowRttSum = 0;
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double shortRttNanos, int maxInFlight, boolean dropped) {
+        double current = limit;
+        if (dropped) {
+            limit = Math.max(minLimit, current * backoffRatio);
+            return;
+        }
+
+        longSamples = Math.min(longSamples + 1, LONG_WINDOW / WINDOW_SIZE);
+        longRttNanos = longRttNanos + (shortRttNanos - longRttNanos) / longSamples;
+        // Let the baseline catch up quickly after a sustained slowdown has passed
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // Too little traffic to say anything about the limit
+        if (maxInFlight < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = current * gradient + Math.sqrt(current);
+        newLimit = current * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
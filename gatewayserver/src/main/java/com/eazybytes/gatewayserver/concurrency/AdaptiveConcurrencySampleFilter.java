@@ -0,0 +1,51 @@
+package com.eazybytes.gatewayserver.concurrency;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Runs right before the request is proxied and feeds the round-trip time of every upstream attempt
+ * into the route's {@link AdaptiveConcurrencyLimit}. Retry backoff and filters between the permit
+ * and the call are therefore never taken for service latency.
+ */
+@Component
+public class AdaptiveConcurrencySampleFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ConcurrencyPermit permit = exchange.getAttribute(AdaptiveConcurrencyGatewayFilterFactory.PERMIT_ATTR);
+        if (permit == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            // a cancelled attempt was abandoned by the client or a circuit breaker, see the filter factory
+            if (signal != SignalType.CANCEL) {
+                permit.record(System.nanoTime() - start, signal == SignalType.ON_ERROR || isOverloaded(exchange));
+            }
+        });
+    }
+
+    /**
+     * A gateway-side 502/503/504 means the service did not keep up.
+     */
+    private static boolean isOverloaded(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == HttpStatus.BAD_GATEWAY.value()
+                || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
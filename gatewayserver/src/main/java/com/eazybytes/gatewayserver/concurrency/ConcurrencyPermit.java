@@ -0,0 +1,26 @@
+package com.eazybytes.gatewayserver.concurrency;
+
+/**
+ * Permit held by one request admitted by {@link AdaptiveConcurrencyGatewayFilterFactory}, through
+ * which {@link AdaptiveConcurrencySampleFilter} reports every upstream attempt of the request.
+ */
+final class ConcurrencyPermit {
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final int inFlightAtStart;
+    private volatile boolean sampled;
+
+    ConcurrencyPermit(AdaptiveConcurrencyLimit limit, int inFlightAtStart) {
+        this.limit = limit;
+        this.inFlightAtStart = inFlightAtStart;
+    }
+
+    void record(long rttNanos, boolean dropped) {
+        sampled = true;
+        limit.record(rttNanos, inFlightAtStart, dropped);
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+}
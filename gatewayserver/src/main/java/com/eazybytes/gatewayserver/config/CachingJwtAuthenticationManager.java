@@ -0,0 +1,91 @@
+package com.eazybytes.gatewayserver.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers the authentication produced for a bearer token, so repeat requests with the same token
+ * skip JWT parsing, signature verification, JWK lookup and role conversion.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, never the token itself, and expire at the token's
+ * {@code exp} claim or after {@code maxTtl}, whichever comes first. Failed authentications are not cached.
+ */
+public class CachingJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final Cache<String, Authentication> cache;
+
+    public CachingJwtAuthenticationManager(ReactiveAuthenticationManager delegate, long maximumSize, Duration maxTtl) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        String key = hash(bearer.getToken());
+        Authentication cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate.authenticate(authentication)
+                .doOnNext(result -> cache.put(key, result));
+    }
+
+    public Cache<String, Authentication> getCache() {
+        return cache;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record TokenExpiry(long maxTtlNanos) implements Expiry<String, Authentication> {
+
+        @Override
+        public long expireAfterCreate(String key, Authentication value, long currentTime) {
+            if (value instanceof JwtAuthenticationToken jwtAuthentication) {
+                Instant expiresAt = jwtAuthentication.getToken().getExpiresAt();
+                if (expiresAt != null) {
+                    long untilExpiry = Duration.between(Instant.now(), expiresAt).toNanos();
+                    return Math.max(0L, Math.min(untilExpiry, maxTtlNanos));
+                }
+            }
+            return maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Authentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Authentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.eazybytes.gatewayserver.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the authorization server's JWK set in memory so that verifying a token never waits on a
+ * remote fetch. The set is fetched at startup and refreshed in the background on a fixed interval.
+ * <p>
+ * When a token is signed with a key id that is not in the set, e.g. right after a key rotation, one
+ * refresh is triggered and shared by all waiting requests, at most once per
+ * {@code jwk-refresh.min-interval}. A failed refresh keeps serving the previous set.
+ */
+@Component
+public class JwkSetRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwkSetRefresher.class);
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration timeout;
+    private final long minIntervalNanos;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private volatile JWKSet jwkSet;
+    private volatile long fetchedAt;
+    private volatile long lastAttemptAt;
+
+    public JwkSetRefresher(WebClient.Builder webClientBuilder, MeterRegistry meterRegistry,
+                           @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+                           @Value("${jwk-refresh.timeout:5s}") Duration timeout,
+                           @Value("${jwk-refresh.min-interval:30s}") Duration minInterval) {
+        this.webClient = webClientBuilder.build();
+        this.jwkSetUri = jwkSetUri;
+        this.timeout = timeout;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.lastAttemptAt = System.nanoTime() - minIntervalNanos;
+        this.refreshSuccess = Timer.builder("gateway.jwks.refresh").tag("outcome", "success")
+                .description("Time taken to fetch the JWK set").register(meterRegistry);
+        this.refreshFailure = Timer.builder("gateway.jwks.refresh").tag("outcome", "failure")
+                .description("Time taken to fetch the JWK set").register(meterRegistry);
+        Gauge.builder("gateway.jwks.age", this, refresher -> refresher.ageSeconds())
+                .description("Seconds since the JWK set was last fetched")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts right away to warm the keys, then keeps them fresh ahead of rotation.
+     */
+    @Scheduled(fixedDelayString = "${jwk-refresh.interval-ms:300000}")
+    public void scheduledRefresh() {
+        refresh().subscribe(set -> { }, ex -> { });
+    }
+
+    /**
+     * JWK source for {@code NimbusReactiveJwtDecoder}: the keys matching the token's header.
+     */
+    public Flux<JWK> jwkSource(SignedJWT signedJWT) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(signedJWT.getHeader()));
+        JWKSet current = jwkSet;
+        if (current != null) {
+            List<JWK> keys = selector.select(current);
+            if (!keys.isEmpty() || System.nanoTime() - lastAttemptAt < minIntervalNanos) {
+                return Flux.fromIterable(keys);
+            }
+        }
+        return refresh().flatMapIterable(selector::select);
+    }
+
+    private Mono<JWKSet> refresh() {
+        Mono<JWKSet> existing = inFlight.get();
+        if (existing != null) {
+            return existing;
+        }
+        AtomicReference<Mono<JWKSet>> self = new AtomicReference<>();
+        // cleared before the result reaches the waiting requests, so that a request arriving after
+        // it starts a new refresh; only clears this refresh, a later one may already be in flight
+        Runnable clear = () -> inFlight.compareAndSet(self.get(), null);
+        Mono<JWKSet> fetch = Mono.defer(this::fetch)
+                .doOnTerminate(clear)
+                .doOnCancel(clear)
+                .cache();
+        self.set(fetch);
+        if (inFlight.compareAndSet(null, fetch)) {
+            return fetch;
+        }
+        Mono<JWKSet> winner = inFlight.get();
+        return winner != null ? winner : fetch;
+    }
+
+    private Mono<JWKSet> fetch() {
+        long start = System.nanoTime();
+        lastAttemptAt = start;
+        return webClient.get().uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .map(JwkSetRefresher::parse)
+                .doOnNext(set -> {
+                    jwkSet = set;
+                    fetchedAt = System.nanoTime();
+                    refreshSuccess.record(Duration.ofNanos(fetchedAt - start));
+                    logger.debug("Fetched {} keys from {}", set.getKeys().size(), jwkSetUri);
+                })
+                .onErrorResume(ex -> {
+                    refreshFailure.record(Duration.ofNanos(System.nanoTime() - start));
+                    JWKSet stale = jwkSet;
+                    if (stale == null) {
+                        logger.warn("Failed to fetch the JWK set from {}", jwkSetUri, ex);
+                        return Mono.error(ex);
+                    }
+                    logger.warn("Failed to refresh the JWK set from {}, keeping the previous keys: {}",
+                            jwkSetUri, ex.getMessage());
+                    return Mono.just(stale);
+                });
+    }
+
+    private double ageSeconds() {
+        return jwkSet == null ? Double.NaN : (System.nanoTime() - fetchedAt) / 1_000_000_000.0;
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException ex) {
+            throw new IllegalStateException("Invalid JWK set", ex);
+        }
+    }
+}
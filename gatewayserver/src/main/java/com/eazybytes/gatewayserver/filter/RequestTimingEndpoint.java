@@ -0,0 +1,25 @@
+package com.eazybytes.gatewayserver.filter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/requesttimings/{correlationId}} returns the gateway timing of a recent request.
+ */
+@Component
+@Endpoint(id = "requesttimings")
+public class RequestTimingEndpoint {
+
+    private final RequestTimingStore requestTimingStore;
+
+    public RequestTimingEndpoint(RequestTimingStore requestTimingStore) {
+        this.requestTimingStore = requestTimingStore;
+    }
+
+    @ReadOperation
+    public RequestTiming requestTiming(@Selector String correlationId) {
+        return requestTimingStore.find(correlationId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.eazybytes.gatewayserver.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps the timings of recent requests by correlation id, bounded in size and age, and logs every
+ * request slower than {@code request-timing.slow-threshold} with its correlation id.
+ */
+@Component
+public class RequestTimingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimingStore.class);
+
+    private final Cache<String, RequestTiming> timings;
+    private final double slowThresholdMillis;
+
+    public RequestTimingStore(@Value("${request-timing.maximum-size:10000}") long maximumSize,
+                              @Value("${request-timing.retention:15m}") Duration retention,
+                              @Value("${request-timing.slow-threshold:1s}") Duration slowThreshold) {
+        this.timings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+        this.slowThresholdMillis = slowThreshold.toNanos() / 1_000_000.0;
+    }
+
+    public void record(RequestTiming timing) {
+        if (timing.correlationId() == null) {
+            return;
+        }
+        timings.put(timing.correlationId(), timing);
+        if (timing.totalMillis() >= slowThresholdMillis) {
+            logger.warn("Slow request {}", timing);
+        }
+    }
+
+    public RequestTiming find(String correlationId) {
+        return timings.getIfPresent(correlationId);
+    }
+}
@@ -4,15 +4,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.UUID;
-
-@Order(1)
+/**
+ * Resolves the correlation id before any route filter runs (those are ordered from 0), so that
+ * responses short-circuited by the rate limiter or circuit breaker carry it as well.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 @Component
 public class RequestTraceFilter implements GlobalFilter {
 
@@ -27,23 +30,16 @@ public class RequestTraceFilter implements GlobalFilter {
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
-        if (isCorrelationIdPresent(requestHeaders)) {
-            logger.debug("eazyBank-correlation-id found in RequestTraceFilter : {}",
-                    filterUtility.getCorrelationId(requestHeaders));
+        String correlationId = filterUtility.getCorrelationId(requestHeaders);
+        if (correlationId != null) {
+            logger.debug("eazyBank-correlation-id found in RequestTraceFilter : {}", correlationId);
         } else {
-            String correlationID = generateCorrelationId();
-            exchange = filterUtility.setCorrelationId(exchange, correlationID);
-            logger.debug("eazyBank-correlation-id generated in RequestTraceFilter : {}", correlationID);
+            correlationId = CorrelationIdGenerator.next();
+            exchange = filterUtility.setCorrelationId(exchange, correlationId);
+            logger.debug("eazyBank-correlation-id generated in RequestTraceFilter : {}", correlationId);
         }
+        exchange.getAttributes().put(FilterUtility.CORRELATION_ID_ATTR, correlationId);
         return chain.filter(exchange);
     }
 
-    private boolean isCorrelationIdPresent(HttpHeaders requestHeaders) {
-        return filterUtility.getCorrelationId(requestHeaders) != null;
-    }
-
-    private String generateCorrelationId() {
-        return UUID.randomUUID().toString();
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.eazybytes.gatewayserver.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Measures every exchange with a monotonic clock and splits it into the time spent waiting for the
+ * downstream service (up to its response headers, see {@link UpstreamTimingFilter}) and the time
+ * spent in the gateway itself.
+ * <p>
+ * The split is reported to the caller as {@code Server-Timing: gateway;dur=..., upstream;dur=...}
+ * with the total in {@code X-Response-Time}, and recorded per route in the
+ * {@code gateway.route.latency} histogram tagged {@code component=gateway|upstream}. Each request
+ * is also handed to the {@link RequestTimingStore} under its correlation id.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class ResponseTimingFilter implements GlobalFilter {
+
+    public static final String RESPONSE_TIME_HEADER = "X-Response-Time";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final MeterRegistry meterRegistry;
+    private final RequestTimingStore requestTimingStore;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ResponseTimingFilter(MeterRegistry meterRegistry, RequestTimingStore requestTimingStore) {
+        this.meterRegistry = meterRegistry;
+        this.requestTimingStore = requestTimingStore;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        Instant receivedAt = Instant.now();
+        exchange.getResponse().beforeCommit(() -> {
+            long total = System.nanoTime() - start;
+            long upstream = upstreamNanos(exchange);
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.set(RESPONSE_TIME_HEADER, millis(total) + "ms");
+            headers.add(SERVER_TIMING_HEADER, upstream >= 0
+                    ? "gateway;dur=" + millis(total - upstream) + ", upstream;dur=" + millis(upstream)
+                    : "gateway;dur=" + millis(total));
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> record(exchange, receivedAt, System.nanoTime() - start));
+    }
+
+    private void record(ServerWebExchange exchange, Instant receivedAt, long total) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+        long upstream = upstreamNanos(exchange);
+        if (upstream >= 0) {
+            timer(routeId, "upstream").record(upstream, TimeUnit.NANOSECONDS);
+            timer(routeId, "gateway").record(total - upstream, TimeUnit.NANOSECONDS);
+        } else {
+            timer(routeId, "gateway").record(total, TimeUnit.NANOSECONDS);
+        }
+
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        requestTimingStore.record(new RequestTiming(exchange.getAttribute(FilterUtility.CORRELATION_ID_ATTR),
+                routeId, exchange.getRequest().getMethod().name(), exchange.getRequest().getPath().value(),
+                status != null ? status.value() : 0, receivedAt,
+                total / 1_000_000.0, upstream >= 0 ? upstream / 1_000_000.0 : -1));
+    }
+
+    private Timer timer(String routeId, String component) {
+        return timers.computeIfAbsent(routeId + '|' + component, key -> Timer.builder("gateway.route.latency")
+                .description("Time spent per route in the gateway and in the downstream service")
+                .tag("route", routeId)
+                .tag("component", component)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * @return the upstream time so far, or -1 if the request was never proxied
+     */
+    private static long upstreamNanos(ServerWebExchange exchange) {
+        Long upstreamStart = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_START_ATTR);
+        if (upstreamStart == null) {
+            return -1L;
+        }
+        Long upstreamEnd = exchange.getAttribute(UpstreamTimingFilter.UPSTREAM_END_ATTR);
+        return (upstreamEnd != null ? upstreamEnd : System.nanoTime()) - upstreamStart;
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -2,14 +2,23 @@ package com.eazybytes.gatewayserver.filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-@Configuration
-public class ResponseTraceFilter {
+/**
+ * Echoes the correlation id on every response the gateway produces, including ones short-circuited
+ * by a route filter such as the rate limiter or the circuit breaker fallback. The header is written
+ * just before the response commits; once it has committed the headers are read-only.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Component
+public class ResponseTraceFilter implements GlobalFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(ResponseTraceFilter.class);
 
@@ -19,17 +28,17 @@ public class ResponseTraceFilter {
         this.filterUtility = filterUtility;
     }
 
-    @Bean
-    public GlobalFilter postGlobalFilter() {
-        return (exchange, chain) -> {
-            return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-                HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
-                String correlationId = filterUtility.getCorrelationId(requestHeaders);
-                if (exchange.getResponse().getHeaders().containsKey(filterUtility.CORRELATION_ID)) {
-                    logger.debug("Updated the correlation id to the outbound headers: {}", correlationId);
-                    exchange.getResponse().getHeaders().add(filterUtility.CORRELATION_ID, correlationId);
-                }
-            }));
-        };
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getResponse().beforeCommit(() -> {
+            String correlationId = filterUtility.getCorrelationId(exchange);
+            HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+            if (correlationId != null && !responseHeaders.containsKey(FilterUtility.CORRELATION_ID)) {
+                logger.debug("Updated the correlation id to the outbound headers: {}", correlationId);
+                responseHeaders.set(FilterUtility.CORRELATION_ID, correlationId);
+            }
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
     }
 }
@@ -0,0 +1,33 @@
+package com.eazybytes.gatewayserver.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs right before the request is proxied and marks when the upstream call started and when its
+ * response headers arrived. With retries the start of the first attempt is kept, so backoff counts
+ * as upstream time. {@link ResponseTimingFilter} turns the marks into headers and metrics.
+ */
+@Component
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_START_ATTR = UpstreamTimingFilter.class.getName() + ".start";
+    public static final String UPSTREAM_END_ATTR = UpstreamTimingFilter.class.getName() + ".end";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().putIfAbsent(UPSTREAM_START_ATTR, System.nanoTime());
+        return chain.filter(exchange)
+                .doFinally(signal -> exchange.getAttributes().put(UPSTREAM_END_ATTR, System.nanoTime()));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
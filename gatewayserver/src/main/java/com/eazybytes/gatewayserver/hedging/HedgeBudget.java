@@ -0,0 +1,38 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests at a percentage of primary requests. Every primary request earns
+ * {@code budgetPercent / 100} of a hedge, every hedge spends one, and unused credit is capped so a
+ * quiet period cannot be followed by a burst of hedges.
+ */
+class HedgeBudget {
+
+    private static final long ONE_HEDGE = 1000L;
+
+    private final long creditPerRequest;
+    private final long maxCredit;
+    private final AtomicLong credit = new AtomicLong();
+
+    HedgeBudget(int budgetPercent, int maxBurst) {
+        this.creditPerRequest = ONE_HEDGE * Math.max(0, budgetPercent) / 100;
+        this.maxCredit = ONE_HEDGE * Math.max(1, maxBurst);
+    }
+
+    void onRequest() {
+        credit.getAndUpdate(current -> Math.min(maxCredit, current + creditPerRequest));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            long current = credit.get();
+            if (current < ONE_HEDGE) {
+                return false;
+            }
+            if (credit.compareAndSet(current, current - ONE_HEDGE)) {
+                return true;
+            }
+        }
+    }
+}
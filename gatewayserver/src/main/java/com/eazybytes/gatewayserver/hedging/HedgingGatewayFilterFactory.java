@@ -0,0 +1,340 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Opt-in hedging for idempotent GETs on {@code lb://} routes with at least two instances. The
+ * request continues down the normal chain, so load balancing, the routing filter's timeouts and
+ * headers and response streaming all apply to it. If it has no response yet once the route's
+ * latency percentile has passed, the same request also goes to a different instance, and
+ * whichever response arrives first is returned.
+ * <p>
+ * Hedges are limited to {@code budgetPercent} of requests by a {@link HedgeBudget}. Only the hedge
+ * is proxied by this filter, with a buffered body, which suits the small JSON responses of the
+ * services. A hedge answering with a server error never wins: the normal response, including any
+ * fast failure that retry and circuit breaker filters must see, is returned as is.
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingGatewayFilterFactory.class);
+    private static final String BUDGETED_ATTR = HedgingGatewayFilterFactory.class.getName() + ".budgeted";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("host", "connection", "content-length",
+            "transfer-encoding", "upgrade", "keep-alive");
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    public HedgingGatewayFilterFactory(ReactiveDiscoveryClient discoveryClient, WebClient.Builder webClientBuilder,
+                                       MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.discoveryClient = discoveryClient;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        LatencyTracker latencyTracker = new LatencyTracker(config.getPercentile());
+        HedgeBudget budget = new HedgeBudget(config.getBudgetPercent(), config.getMaxBurst());
+        AtomicInteger nextInstance = new AtomicInteger();
+
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (route == null || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                    || !"lb".equals(route.getUri().getScheme())) {
+                return chain.filter(exchange);
+            }
+
+            return discoveryClient.getInstances(route.getUri().getHost()).collectList().flatMap(instances -> {
+                if (instances.size() < 2) {
+                    return chain.filter(exchange);
+                }
+                // a retry filter ahead of this one runs it again for the same request, which earns credit once
+                if (exchange.getAttributes().putIfAbsent(BUDGETED_ATTR, Boolean.TRUE) == null) {
+                    budget.onRequest();
+                }
+                return hedged(exchange, chain, route, instances, nextInstance, latencyTracker, budget, config);
+            });
+        };
+    }
+
+    private Mono<Void> hedged(ServerWebExchange exchange, GatewayFilterChain chain, Route route,
+                              List<ServiceInstance> instances, AtomicInteger nextInstance,
+                              LatencyTracker latencyTracker, HedgeBudget budget, Config config) {
+        long start = System.nanoTime();
+        ServerHttpResponse response = exchange.getResponse();
+        AtomicReference<Leg> owner = new AtomicReference<>();
+        PrimaryResponse primaryResponse = new PrimaryResponse(response, owner, status -> {
+            // fast server errors would drag the percentile down and trigger hedges too early
+            if (!status.is5xxServerError()) {
+                latencyTracker.record(System.nanoTime() - start);
+            }
+        });
+
+        Mono<Void> primary = chain.filter(exchange.mutate().response(primaryResponse).build())
+                .onErrorResume(ex -> claim(owner, Leg.PRIMARY) ? Mono.error(ex) : Mono.never())
+                .then(Mono.defer(() -> claim(owner, Leg.PRIMARY) ? Mono.<Void>empty() : Mono.never()));
+
+        long percentile = latencyTracker.percentileNanos();
+        Duration delay = percentile < 0 ? config.getMaxDelay()
+                : clamp(Duration.ofNanos(percentile), config.getMinDelay(), config.getMaxDelay());
+        Mono<Void> hedge = Mono.delay(delay).then(Mono.defer(() -> {
+            URI primaryUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            if (owner.get() != null || primaryUrl == null) {
+                return Mono.never();
+            }
+            ServiceInstance other = otherInstance(instances, primaryUrl, nextInstance);
+            if (other == null) {
+                return Mono.never();
+            }
+            if (!budget.tryAcquire()) {
+                count(route, "budget_exhausted");
+                return Mono.never();
+            }
+            count(route, "hedged");
+            logger.debug("Hedging {} {} to {} after {}", exchange.getRequest().getMethod(),
+                    primaryUrl.getRawPath(), other.getUri(), delay);
+            return call(exchange, primaryUrl, other, config)
+                    .flatMap(entity -> {
+                        if (entity.getStatusCode().is5xxServerError() || !claim(owner, Leg.HEDGE)) {
+                            return Mono.<Void>never();
+                        }
+                        // the primary is still waiting, so it takes at least this long
+                        latencyTracker.record(System.nanoTime() - start);
+                        count(route, "won_by_hedge");
+                        return write(response, entity);
+                    })
+                    .onErrorResume(ex -> Mono.never());
+        }));
+
+        // the leg that does not own the response never signals, so the owner always completes the exchange
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    private static ServiceInstance otherInstance(List<ServiceInstance> instances, URI primaryUrl,
+                                                 AtomicInteger nextInstance) {
+        int offset = nextInstance.getAndIncrement();
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance instance = instances.get(Math.floorMod(offset + i, instances.size()));
+            if (!instance.getHost().equalsIgnoreCase(primaryUrl.getHost()) || instance.getPort() != primaryUrl.getPort()) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private Mono<ResponseEntity<byte[]>> call(ServerWebExchange exchange, URI primaryUrl, ServiceInstance instance,
+                                              Config config) {
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(primaryUrl.getRawPath())
+                .replaceQuery(primaryUrl.getRawQuery())
+                .build(true)
+                .toUri();
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> exchange.getRequest().getHeaders().forEach((name, values) -> {
+                    if (!isHopByHop(name)) {
+                        headers.addAll(name, values);
+                    }
+                }))
+                .exchangeToMono(clientResponse -> clientResponse.toEntity(byte[].class))
+                .timeout(config.getTimeout());
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, ResponseEntity<byte[]> entity) {
+        response.setStatusCode(entity.getStatusCode());
+        entity.getHeaders().forEach((name, values) -> {
+            if (!isHopByHop(name)) {
+                response.getHeaders().addAll(name, values);
+            }
+        });
+        byte[] body = entity.getBody();
+        if (body == null || body.length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static boolean claim(AtomicReference<Leg> owner, Leg leg) {
+        return owner.compareAndSet(null, leg) || owner.get() == leg;
+    }
+
+    private static boolean isHopByHop(String name) {
+        return HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+    }
+
+    private void count(Route route, String outcome) {
+        meterRegistry.counter("gateway.hedge.requests", "route", route.getId(), "outcome", outcome).increment();
+    }
+
+    private static Duration clamp(Duration value, Duration min, Duration max) {
+        return value.compareTo(min) < 0 ? min : value.compareTo(max) > 0 ? max : value;
+    }
+
+    private enum Leg {
+        PRIMARY, HEDGE
+    }
+
+    /**
+     * Response handed to the normal chain. The first status or body it receives makes the primary
+     * the owner of the response; once the hedge owns it, everything written here is dropped.
+     */
+    private static final class PrimaryResponse extends ServerHttpResponseDecorator {
+
+        private final AtomicReference<Leg> owner;
+        private final Consumer<HttpStatusCode> onFirstStatus;
+        private final HttpHeaders discardedHeaders = new HttpHeaders();
+        private final AtomicBoolean statusSeen = new AtomicBoolean();
+
+        PrimaryResponse(ServerHttpResponse delegate, AtomicReference<Leg> owner, Consumer<HttpStatusCode> onFirstStatus) {
+            super(delegate);
+            this.owner = owner;
+            this.onFirstStatus = onFirstStatus;
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            if (!claim(owner, Leg.PRIMARY)) {
+                return false;
+            }
+            if (status != null && statusSeen.compareAndSet(false, true)) {
+                onFirstStatus.accept(status);
+            }
+            return super.setStatusCode(status);
+        }
+
+        @Override
+        @Deprecated
+        public boolean setRawStatusCode(Integer value) {
+            return setStatusCode(value != null ? HttpStatusCode.valueOf(value) : null);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return owner.get() == Leg.HEDGE ? discardedHeaders : super.getHeaders();
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!claim(owner, Leg.PRIMARY)) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then();
+            }
+            return super.writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            if (!claim(owner, Leg.PRIMARY)) {
+                return Flux.from(body).flatMap(Flux::from).doOnNext(DataBufferUtils::release).then();
+            }
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return claim(owner, Leg.PRIMARY) ? super.setComplete() : Mono.empty();
+        }
+    }
+
+    public static class Config {
+
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int budgetPercent = 10;
+        private int maxBurst = 10;
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public Config setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public Config setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public Config setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public Config setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+            return this;
+        }
+
+        public int getMaxBurst() {
+            return maxBurst;
+        }
+
+        public Config setMaxBurst(int maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public Config setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate latency percentile over the last {@value #WINDOW} responses of a route. Samples go
+ * into a ring buffer without locking; the percentile is recomputed every {@value #RECOMPUTE_EVERY}
+ * samples and read from a volatile field in between.
+ */
+class LatencyTracker {
+
+    private static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 128;
+    private static final int MIN_SAMPLES = 100;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long percentileNanos = -1L;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), nanos);
+        if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(n + 1, WINDOW));
+        }
+    }
+
+    /**
+     * @return the configured percentile in nanoseconds, or -1 until enough samples were recorded
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        percentileNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
@@ -0,0 +1,44 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Builds rate limit keys of the form {@code tier:caller} from the already validated JWT, so every
+ * token subject gets its own bucket sized by its realm roles. Requests without a token are keyed
+ * by client address instead of sharing a single bucket.
+ */
+public class JwtClaimKeyResolver implements KeyResolver {
+
+    private final RateLimitPolicyEngine policyEngine;
+
+    public JwtClaimKeyResolver(RateLimitPolicyEngine policyEngine) {
+        this.policyEngine = policyEngine;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "";
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .cast(JwtAuthenticationToken.class)
+                .map(token -> policyEngine.tierFor(routeId, token.getAuthorities()) + ":" + token.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> RateLimitPolicyEngine.ANONYMOUS_TIER + ":" + clientAddress(exchange)));
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+}
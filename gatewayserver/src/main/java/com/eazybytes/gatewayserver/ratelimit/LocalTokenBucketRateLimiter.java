@@ -0,0 +1,170 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drop-in replacement for {@code RedisRateLimiter} that keeps one token bucket per route and key in
+ * gateway memory, so a rate limit check never leaves the JVM and keeps working while Redis is down.
+ * <p>
+ * On its own every replica would allow the full rate. {@link RateLimitReconciler} periodically
+ * exchanges the tokens consumed per bucket between replicas and charges them to the local buckets,
+ * so the cluster as a whole converges on the configured rate.
+ * <p>
+ * Quotas come from the {@link RateLimitPolicyEngine}: a request must fit in its caller's bucket,
+ * then in the route's shared bucket and in the global bucket, where those are configured. Tokens
+ * taken from a lower level are returned when a higher level rejects the request.
+ */
+public class LocalTokenBucketRateLimiter extends AbstractRateLimiter<LocalTokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private static final String ROUTE_BUCKET_SUFFIX = ":*";
+    private static final String GLOBAL_BUCKET = "*";
+
+    private final Config defaultConfig;
+    private final RateLimitPolicyEngine policyEngine;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public LocalTokenBucketRateLimiter(int replenishRate, int burstCapacity, int requestedTokens,
+                                       RateLimitPolicyEngine policyEngine) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, (ConfigurationService) null);
+        this.policyEngine = policyEngine;
+        this.defaultConfig = new Config().setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRequestedTokens(requestedTokens);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        int tokens = config.getRequestedTokens();
+        int separator = id.indexOf(':');
+        String tier = separator > 0 ? id.substring(0, separator) : RateLimitPolicyEngine.AUTHENTICATED_TIER;
+        Quota callerQuota = policyEngine.callerQuota(routeId, tier);
+        if (callerQuota == null) {
+            callerQuota = new Quota(config.getReplenishRate(), config.getBurstCapacity());
+        }
+        long now = System.nanoTime();
+
+        TokenBucket callerBucket = bucket(routeId + ":" + id, callerQuota, now);
+        long remaining = callerBucket.tryConsume(tokens, now);
+        if (remaining < 0) {
+            return reject(routeId, tier, "rejected_caller", callerQuota, tokens);
+        }
+
+        Quota routeQuota = policyEngine.routeQuota(routeId);
+        TokenBucket routeBucket = routeQuota != null ? bucket(routeId + ROUTE_BUCKET_SUFFIX, routeQuota, now) : null;
+        if (routeBucket != null && routeBucket.tryConsume(tokens, now) < 0) {
+            callerBucket.refund(tokens);
+            return reject(routeId, tier, "rejected_route", callerQuota, tokens);
+        }
+
+        Quota globalQuota = policyEngine.globalQuota();
+        if (globalQuota != null && bucket(GLOBAL_BUCKET, globalQuota, now).tryConsume(tokens, now) < 0) {
+            callerBucket.refund(tokens);
+            if (routeBucket != null) {
+                routeBucket.refund(tokens);
+            }
+            return reject(routeId, tier, "rejected_global", callerQuota, tokens);
+        }
+
+        policyEngine.record(routeId, tier, "allowed");
+        return Mono.just(new Response(true, getHeaders(callerQuota, tokens, remaining)));
+    }
+
+    private TokenBucket bucket(String key, Quota quota, long now) {
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(quota.replenishRate(), quota.burstCapacity(), now));
+    }
+
+    private Mono<Response> reject(String routeId, String tier, String outcome, Quota callerQuota, int tokens) {
+        policyEngine.record(routeId, tier, outcome);
+        return Mono.just(new Response(false, getHeaders(callerQuota, tokens, 0L)));
+    }
+
+    /**
+     * @return the tokens consumed locally per bucket since the previous call
+     */
+    Map<String, Long> drainLocalConsumption() {
+        Map<String, Long> consumed = new HashMap<>();
+        buckets.forEach((key, bucket) -> {
+            long tokens = bucket.drainUnsyncedTokens();
+            if (tokens > 0) {
+                consumed.put(key, tokens);
+            }
+        });
+        return consumed;
+    }
+
+    /**
+     * Charge tokens consumed on another replica to the matching local buckets.
+     */
+    void applyRemoteConsumption(Map<String, Long> consumed) {
+        long now = System.nanoTime();
+        consumed.forEach((key, tokens) -> {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket != null && tokens != null && tokens > 0) {
+                bucket.charge(tokens, now);
+            }
+        });
+    }
+
+    /**
+     * Drop buckets that are full again and have nothing left to sync; they behave exactly like new ones.
+     */
+    void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    private Map<String, String> getHeaders(Quota quota, int tokens, long remaining) {
+        return Map.of(REMAINING_HEADER, Long.toString(remaining),
+                REPLENISH_RATE_HEADER, Integer.toString(quota.replenishRate()),
+                BURST_CAPACITY_HEADER, Integer.toString(quota.burstCapacity()),
+                REQUESTED_TOKENS_HEADER, Integer.toString(tokens));
+    }
+
+    public static class Config {
+
+        private int replenishRate;
+        private int burstCapacity = 1;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
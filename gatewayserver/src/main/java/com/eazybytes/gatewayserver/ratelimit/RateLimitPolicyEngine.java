@@ -0,0 +1,111 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.RoutePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles {@link RateLimitPolicyProperties} once at startup into per-route lookup tables, so that
+ * resolving the quotas for a request is a couple of hash lookups.
+ * <p>
+ * Callers are grouped into tiers: the realm role that grants them the most generous quota on the
+ * route, {@value #AUTHENTICATED_TIER} for other token holders and {@value #ANONYMOUS_TIER} for
+ * requests without a token. Outcomes are counted per route and tier; callers themselves are not
+ * used as a metric tag to keep the number of series bounded.
+ */
+@Component
+public class RateLimitPolicyEngine {
+
+    public static final String ANONYMOUS_TIER = "anonymous";
+    public static final String AUTHENTICATED_TIER = "authenticated";
+
+    private final Map<String, CompiledRoute> routes;
+    private final Quota global;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimitPolicyEngine(RateLimitPolicyProperties properties, MeterRegistry meterRegistry) {
+        this.global = properties.global();
+        this.meterRegistry = meterRegistry;
+        Map<String, CompiledRoute> compiled = new HashMap<>();
+        properties.routes().forEach((routeId, policy) -> compiled.put(routeId, compile(policy)));
+        this.routes = Map.copyOf(compiled);
+    }
+
+    /**
+     * @param routeId     the matched route
+     * @param authorities the caller's authorities, as produced by {@code KeyCloakRoleConverter}
+     * @return the tier whose quota applies to the caller on this route
+     */
+    public String tierFor(String routeId, Collection<? extends GrantedAuthority> authorities) {
+        CompiledRoute route = routes.get(routeId);
+        if (route != null && !authorities.isEmpty()) {
+            for (RoleQuota roleQuota : route.rolesByGenerosity()) {
+                for (GrantedAuthority authority : authorities) {
+                    if (roleQuota.authority().equals(authority.getAuthority())) {
+                        return roleQuota.role();
+                    }
+                }
+            }
+        }
+        return AUTHENTICATED_TIER;
+    }
+
+    /**
+     * @return the per-caller quota for the tier, or null to use the limiter's default
+     */
+    Quota callerQuota(String routeId, String tier) {
+        CompiledRoute route = routes.get(routeId);
+        if (route == null) {
+            return null;
+        }
+        Quota roleQuota = route.quotasByRole().get(tier);
+        return roleQuota != null ? roleQuota : route.caller();
+    }
+
+    Quota routeQuota(String routeId) {
+        CompiledRoute route = routes.get(routeId);
+        return route != null ? route.route() : null;
+    }
+
+    Quota globalQuota() {
+        return global;
+    }
+
+    void record(String routeId, String tier, String outcome) {
+        counters.computeIfAbsent(routeId + '|' + tier + '|' + outcome, key -> Counter.builder("gateway.ratelimit.requests")
+                        .description("Rate limited requests by route, caller tier and outcome")
+                        .tag("route", routeId)
+                        .tag("tier", tier)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static CompiledRoute compile(RoutePolicy policy) {
+        List<RoleQuota> rolesByGenerosity = policy.roles().entrySet().stream()
+                .map(entry -> new RoleQuota(entry.getKey(), "ROLE_" + entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingInt((RoleQuota roleQuota) -> roleQuota.quota().replenishRate())
+                        .thenComparingInt(roleQuota -> roleQuota.quota().burstCapacity())
+                        .reversed())
+                .toList();
+        return new CompiledRoute(policy.route(), policy.caller(), Map.copyOf(policy.roles()), rolesByGenerosity);
+    }
+
+    private record RoleQuota(String role, String authority, Quota quota) {
+    }
+
+    private record CompiledRoute(Quota route, Quota caller, Map<String, Quota> quotasByRole,
+                                 List<RoleQuota> rolesByGenerosity) {
+    }
+}
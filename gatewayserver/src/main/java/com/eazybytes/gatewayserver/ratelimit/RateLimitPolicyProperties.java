@@ -0,0 +1,36 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Rate limit quotas applied by {@link LocalTokenBucketRateLimiter}. A request has to fit in every
+ * level that is configured: its caller's own bucket, the route's shared bucket and the global bucket.
+ *
+ * @param global quota shared by every caller of every rate limited route, none if absent
+ * @param routes quotas per route id
+ */
+@ConfigurationProperties(prefix = "rate-limiter.policies")
+public record RateLimitPolicyProperties(
+        Quota global,
+
+        @DefaultValue Map<String, RoutePolicy> routes
+) {
+
+    /**
+     * @param replenishRate tokens added per second
+     * @param burstCapacity maximum tokens the bucket can hold
+     */
+    public record Quota(int replenishRate, @DefaultValue("1") int burstCapacity) {
+    }
+
+    /**
+     * @param route  quota shared by all callers of the route, none if absent
+     * @param caller quota per caller without a matching role, the limiter default if absent
+     * @param roles  quota per caller holding the given realm role; the most generous one wins
+     */
+    public record RoutePolicy(Quota route, Quota caller, @DefaultValue Map<String, Quota> roles) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the in-memory buckets of {@link LocalTokenBucketRateLimiter} roughly in step across gateway
+ * replicas. Every replica publishes the tokens it consumed to a Redis channel and charges what the
+ * others published to its own buckets.
+ * <p>
+ * This runs entirely off the request path. If Redis is unavailable the sync is skipped and every
+ * replica keeps limiting on its own until it comes back.
+ */
+@Component
+public class RateLimitReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitReconciler.class);
+
+    private final String replicaId = UUID.randomUUID().toString();
+    private final LocalTokenBucketRateLimiter rateLimiter;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private Disposable subscription;
+
+    public RateLimitReconciler(LocalTokenBucketRateLimiter rateLimiter, ReactiveStringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${rate-limiter.sync-channel:gateway-rate-limiter-sync}") String channel) {
+        this.rateLimiter = rateLimiter;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // deferred: listenToChannel connects eagerly and would otherwise fail startup when Redis is down
+        subscription = Flux.defer(() -> redisTemplate.listenToChannel(channel))
+                .doOnError(ex -> logger.debug("Rate limiter sync channel unavailable: {}", ex.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> applyRemote(message.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limiter.sync-interval-ms:1000}")
+    public void publish() {
+        rateLimiter.evictIdleBuckets();
+        Map<String, Long> consumed = rateLimiter.drainLocalConsumption();
+        if (consumed.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(new RateLimitSyncMessage(replicaId, consumed));
+        } catch (JsonProcessingException ex) {
+            logger.warn("Failed to serialize rate limiter sync message", ex);
+            return;
+        }
+        redisTemplate.convertAndSend(channel, payload)
+                .subscribe(receivers -> { },
+                        ex -> logger.debug("Skipped rate limiter sync, Redis unavailable: {}", ex.getMessage()));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private void applyRemote(String payload) {
+        try {
+            RateLimitSyncMessage message = objectMapper.readValue(payload, RateLimitSyncMessage.class);
+            if (!replicaId.equals(message.replicaId()) && message.consumed() != null) {
+                rateLimiter.applyRemoteConsumption(message.consumed());
+            }
+        } catch (JsonProcessingException ex) {
+            logger.warn("Ignoring malformed rate limiter sync message", ex);
+        }
+    }
+}
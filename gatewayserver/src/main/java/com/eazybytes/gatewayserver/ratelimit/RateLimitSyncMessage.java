@@ -0,0 +1,16 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Tokens consumed on one gateway replica since its previous sync.
+ *
+ * @param replicaId the replica that consumed the tokens
+ * @param consumed  tokens consumed per rate limiter bucket
+ */
+public record RateLimitSyncMessage(
+        String replicaId,
+
+        Map<String, Long> consumed
+) {
+}
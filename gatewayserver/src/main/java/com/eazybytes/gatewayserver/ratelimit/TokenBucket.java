@@ -0,0 +1,71 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is a single "theoretical arrival time"
+ * updated with one CAS, so a check costs a few nanoseconds and allocates nothing.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+    private final LongAdder unsyncedTokens = new LongAdder();
+
+    TokenBucket(int replenishRate, int burstCapacity, long now) {
+        this.intervalNanos = Math.max(1L, 1_000_000_000L / Math.max(1, replenishRate));
+        this.burstNanos = intervalNanos * Math.max(1, burstCapacity);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return the tokens left after taking {@code tokens}, or -1 if there were not enough
+     */
+    long tryConsume(int tokens, long now) {
+        long cost = intervalNanos * tokens;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + cost;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                unsyncedTokens.add(tokens);
+                return (burstNanos - backlog) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Give back tokens taken by {@link #tryConsume} for a request that was rejected further up.
+     */
+    void refund(int tokens) {
+        theoreticalArrival.addAndGet(-intervalNanos * tokens);
+        unsyncedTokens.add(-tokens);
+    }
+
+    /**
+     * Take tokens consumed on another replica. Never pushes the bucket further than empty.
+     */
+    void charge(long tokens, long now) {
+        long cost = intervalNanos * tokens;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.min(Math.max(current, now) + cost, now + burstNanos);
+            if (next <= current || theoreticalArrival.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    long drainUnsyncedTokens() {
+        return unsyncedTokens.sumThenReset();
+    }
+
+    boolean isIdle(long now) {
+        return theoreticalArrival.get() <= now && unsyncedTokens.sum() == 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.eazybytes.gatewayserver.cache;
+
+import com.eazybytes.gatewayserver.ratelimit.LocalTokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheGatewayFilterFactoryTests {
+
+    private static final String FETCH = "/eazybank/accounts/api/accounts/fetch?mobileNumber=9876543210";
+    private static final String BUILD_INFO = "/eazybank/accounts/api/accounts/build-info";
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final GatewayFilter filter = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry(),
+            DataSize.ofMegabytes(1)).apply(new ResponseCacheGatewayFilterFactory.Config()
+            .cache("/eazybank/*/api/*/build-info", Duration.ofMinutes(10))
+            .cacheUntilWrite("/eazybank/*/api/*/fetch", Duration.ofMinutes(10)));
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        assertThat(get(FETCH)).isEqualTo("MISS");
+        assertThat(get(FETCH)).isEqualTo("HIT");
+        assertThat(downstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void aSuccessfulWriteDropsOnlyThePathsItInvalidates() {
+        get(FETCH);
+        get(BUILD_INFO);
+
+        write(HttpStatus.NO_CONTENT);
+
+        assertThat(get(FETCH)).isEqualTo("MISS");
+        assertThat(get(BUILD_INFO)).isEqualTo("HIT");
+    }
+
+    @Test
+    void aFailedWriteKeepsTheCachedResponses() {
+        get(FETCH);
+
+        write(HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertThat(get(FETCH)).isEqualTo("HIT");
+    }
+
+    @Test
+    void invalidatesResponsesStoredAgainAfterAnEarlierWrite() {
+        get(FETCH);
+        write(HttpStatus.NO_CONTENT);
+        get(FETCH);
+
+        write(HttpStatus.NO_CONTENT);
+
+        assertThat(get(FETCH)).isEqualTo("MISS");
+    }
+
+    @Test
+    void doesNotReplayTheRateLimitHeadersOfTheStoredResponse() {
+        get(FETCH);
+
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(FETCH).build());
+        filter.filter(exchange, downstream(HttpStatus.OK)).block(Duration.ofSeconds(5));
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertThat(headers.getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(headers).doesNotContainKeys(LocalTokenBucketRateLimiter.REMAINING_HEADER,
+                LocalTokenBucketRateLimiter.REPLENISH_RATE_HEADER, LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER,
+                LocalTokenBucketRateLimiter.REQUESTED_TOKENS_HEADER);
+    }
+
+    private String get(String uri) {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(uri).build());
+        filter.filter(exchange, downstream(HttpStatus.OK)).block(Duration.ofSeconds(5));
+        return exchange.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER);
+    }
+
+    private void write(HttpStatus status) {
+        MockServerWebExchange exchange = exchange(
+                MockServerHttpRequest.put("/eazybank/accounts/api/accounts/update").build());
+        filter.filter(exchange, downstream(status)).block(Duration.ofSeconds(5));
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id("accounts").uri(URI.create("lb://ACCOUNTS"))
+                .predicate(serverWebExchange -> true).build());
+        return exchange;
+    }
+
+    private GatewayFilterChain downstream(HttpStatus status) {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            // set by the request rate limiter for the request that reached the service
+            response.getHeaders().set(LocalTokenBucketRateLimiter.REMAINING_HEADER, "4");
+            response.getHeaders().set(LocalTokenBucketRateLimiter.REPLENISH_RATE_HEADER, "1");
+            response.getHeaders().set(LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER, "5");
+            response.getHeaders().set(LocalTokenBucketRateLimiter.REQUESTED_TOKENS_HEADER, "1");
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap("{}".getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+}
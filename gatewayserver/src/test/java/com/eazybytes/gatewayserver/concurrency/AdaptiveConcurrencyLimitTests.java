@@ -0,0 +1,91 @@
+package com.eazybytes.gatewayserver.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void growsWhileLatencyHoldsSteadyAtFullUtilisation() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        window(limit, 10 * MILLIS, 20, false);
+        window(limit, 10 * MILLIS, 20, false);
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+        // a long run at steady latency settles the baseline, so one slow window cannot drag it along
+        for (int i = 0; i < 60; i++) {
+            window(limit, 10 * MILLIS, limit.getLimit(), false);
+        }
+        int before = limit.getLimit();
+
+        window(limit, 40 * MILLIS, before, false);
+
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void backsOffMultiplicativelyOnDroppedCallsDownToTheMinimum() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        window(limit, 10 * MILLIS, 20, true);
+        assertThat(limit.getLimit()).isEqualTo(18);
+
+        for (int i = 0; i < 50; i++) {
+            window(limit, 10 * MILLIS, 20, true);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTheLimitWhenTooFewRequestsAreInFlight() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        window(limit, 10 * MILLIS, 5, false);
+        window(limit, 40 * MILLIS, 5, false);
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void onlyUpdatesOnceAWindowIsComplete() {
+        AdaptiveConcurrencyLimit limit = limit(20);
+
+        for (int i = 0; i < 9; i++) {
+            limit.record(10 * MILLIS, 20, true);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void rejectsPermitsOverTheLimitUntilOneIsReleased() {
+        AdaptiveConcurrencyLimit limit = limit(2);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isEqualTo(-1);
+
+        limit.release();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+    }
+
+    private static AdaptiveConcurrencyLimit limit(int initialLimit) {
+        return new AdaptiveConcurrencyLimit(initialLimit, Math.min(5, initialLimit), 200, 1.5, 1.0, 0.9);
+    }
+
+    private static void window(AdaptiveConcurrencyLimit limit, long rttNanos, int inFlight, boolean dropped) {
+        for (int i = 0; i < 10; i++) {
+            limit.record(rttNanos, inFlight, dropped);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.eazybytes.gatewayserver.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtReactiveAuthenticationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtAuthenticationManagerTests {
+
+    private final ReactiveJwtDecoder jwtDecoder = mock(ReactiveJwtDecoder.class);
+    private final AtomicInteger conversions = new AtomicInteger();
+    private CachingJwtAuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        JwtReactiveAuthenticationManager jwtAuthenticationManager = new JwtReactiveAuthenticationManager(jwtDecoder);
+        jwtAuthenticationManager.setJwtAuthenticationConverter(jwt -> {
+            conversions.incrementAndGet();
+            return Mono.<AbstractAuthenticationToken>just(new JwtAuthenticationToken(jwt, List.of()));
+        });
+        authenticationManager = new CachingJwtAuthenticationManager(jwtAuthenticationManager, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void skipsDecodingAndConversionForARepeatToken() {
+        when(jwtDecoder.decode("token-a")).thenReturn(Mono.just(jwt("token-a", Instant.now().plusSeconds(300))));
+
+        Authentication first = authenticate("token-a");
+        Authentication second = authenticate("token-a");
+
+        assertThat(second).isSameAs(first);
+        verify(jwtDecoder, times(1)).decode("token-a");
+        assertThat(conversions).hasValue(1);
+    }
+
+    @Test
+    void keysEntriesByToken() {
+        when(jwtDecoder.decode("token-a")).thenReturn(Mono.just(jwt("token-a", Instant.now().plusSeconds(300))));
+        when(jwtDecoder.decode("token-b")).thenReturn(Mono.just(jwt("token-b", Instant.now().plusSeconds(300))));
+
+        authenticate("token-a");
+        authenticate("token-b");
+
+        assertThat(conversions).hasValue(2);
+        assertThat(authenticationManager.getCache().asMap()).hasSize(2)
+                .allSatisfy((key, value) -> assertThat(key).doesNotContain("token"));
+    }
+
+    @Test
+    void doesNotServeAnEntryPastTheTokensExpiry() throws InterruptedException {
+        when(jwtDecoder.decode("token-a")).thenReturn(Mono.just(jwt("token-a", Instant.now().plusSeconds(1))));
+
+        authenticate("token-a");
+        authenticate("token-a");
+        verify(jwtDecoder, times(1)).decode("token-a");
+
+        Thread.sleep(1200);
+        authenticate("token-a");
+
+        verify(jwtDecoder, times(2)).decode("token-a");
+    }
+
+    @Test
+    void doesNotCacheAnAlreadyExpiredToken() {
+        when(jwtDecoder.decode("token-a")).thenReturn(Mono.just(jwt("token-a", Instant.now().minusSeconds(1))));
+
+        authenticate("token-a");
+        authenticate("token-a");
+
+        verify(jwtDecoder, times(2)).decode("token-a");
+    }
+
+    @Test
+    void doesNotCacheFailedAuthentications() {
+        when(jwtDecoder.decode("token-a")).thenReturn(Mono.error(new BadJwtException("bad signature")));
+
+        assertThatThrownBy(() -> authenticate("token-a")).isNotNull();
+        assertThatThrownBy(() -> authenticate("token-a")).isNotNull();
+
+        verify(jwtDecoder, times(2)).decode("token-a");
+        assertThat(authenticationManager.getCache().asMap()).isEmpty();
+    }
+
+    private Authentication authenticate(String token) {
+        return authenticationManager.authenticate(new BearerTokenAuthenticationToken(token)).block();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("alice")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
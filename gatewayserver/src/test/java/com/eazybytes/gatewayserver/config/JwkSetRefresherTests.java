@@ -0,0 +1,137 @@
+package com.eazybytes.gatewayserver.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwkSetRefresherTests {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile JWKSet served;
+    private volatile int status = 200;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/certs", exchange -> {
+            requests.incrementAndGet();
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = served.toString(true).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void picksUpARotatedKeyWithOneSharedRefresh() throws JOSEException {
+        RSAKey oldKey = rsaKey("old");
+        RSAKey newKey = rsaKey("new");
+        served = new JWKSet(oldKey);
+        JwkSetRefresher refresher = refresher(Duration.ZERO);
+        assertThat(keyIds(refresher.jwkSource(token("old")))).containsExactly("old");
+
+        served = new JWKSet(List.of(oldKey, newKey));
+        gate = new CountDownLatch(1);
+        Flux<JWK> first = refresher.jwkSource(token("new"));
+        Flux<JWK> second = refresher.jwkSource(token("new"));
+        Mono<List<String>> both = Flux.merge(first, second).map(JWK::getKeyID).collectList();
+        gate.countDown();
+
+        assertThat(both.block(Duration.ofSeconds(5))).containsExactly("new", "new");
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void startsANewRefreshOnceThePreviousOneCompleted() throws JOSEException {
+        served = new JWKSet(rsaKey("old"));
+        JwkSetRefresher refresher = refresher(Duration.ZERO);
+
+        assertThat(keyIds(refresher.jwkSource(token("missing")))).isEmpty();
+        assertThat(keyIds(refresher.jwkSource(token("missing")))).isEmpty();
+
+        // a completed refresh must not stay registered as in flight
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void keepsThePreviousKeysWhenARefreshFails() throws JOSEException {
+        served = new JWKSet(rsaKey("old"));
+        JwkSetRefresher refresher = refresher(Duration.ZERO);
+        assertThat(keyIds(refresher.jwkSource(token("old")))).containsExactly("old");
+
+        status = 500;
+        assertThat(keyIds(refresher.jwkSource(token("new")))).isEmpty();
+        assertThat(keyIds(refresher.jwkSource(token("old")))).containsExactly("old");
+    }
+
+    @Test
+    void doesNotRefreshForUnknownKeysWithinTheMinimumInterval() throws JOSEException {
+        served = new JWKSet(rsaKey("old"));
+        JwkSetRefresher refresher = refresher(Duration.ofMinutes(1));
+        assertThat(keyIds(refresher.jwkSource(token("old")))).containsExactly("old");
+
+        assertThat(keyIds(refresher.jwkSource(token("new")))).isEmpty();
+        assertThat(requests).hasValue(1);
+    }
+
+    private JwkSetRefresher refresher(Duration minInterval) {
+        return new JwkSetRefresher(WebClient.builder(), new SimpleMeterRegistry(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/certs", Duration.ofSeconds(5), minInterval);
+    }
+
+    private static List<String> keyIds(Flux<JWK> keys) {
+        return keys.map(JWK::getKeyID).collectList().block(Duration.ofSeconds(5));
+    }
+
+    private static RSAKey rsaKey(String keyId) throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate().toPublicJWK();
+    }
+
+    private static SignedJWT token(String keyId) {
+        return new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(),
+                new JWTClaimsSet.Builder().subject("eazybank").build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.eazybytes.gatewayserver.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdGeneratorTests {
+
+    private static final int IDS = 100_000;
+
+    @Test
+    void generatesUniqueHexIdsInCreationOrder() {
+        List<String> ids = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            ids.add(CorrelationIdGenerator.next());
+        }
+
+        assertThat(ids).allMatch(id -> id.matches("[0-9a-f]{32}"));
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        // the leading 48 bits are the creation time in millis
+        assertThat(ids).extracting(id -> Long.parseLong(id.substring(0, 12), 16)).isSorted();
+    }
+
+    @Test
+    void allocatesLessPerIdThanARandomUuid() {
+        long correlationIdBytes = allocatedBytesPerId(CorrelationIdGenerator::next);
+        long uuidBytes = allocatedBytesPerId(() -> UUID.randomUUID().toString());
+
+        // the byte array, the String and its copy of the bytes: no SecureRandom state, no intermediate objects
+        assertThat(correlationIdBytes).isLessThanOrEqualTo(160);
+        assertThat(correlationIdBytes).isLessThan(uuidBytes);
+    }
+
+    private static long allocatedBytesPerId(Supplier<String> generator) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Set<Integer> sink = new HashSet<>();
+        for (int i = 0; i < IDS; i++) {
+            sink.add(generator.get().hashCode() & 0xF);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        int hashes = 0;
+        for (int i = 0; i < IDS; i++) {
+            hashes += generator.get().hashCode();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        sink.add(hashes);
+        return allocated / IDS;
+    }
+}
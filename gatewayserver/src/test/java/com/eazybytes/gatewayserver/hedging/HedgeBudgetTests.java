@@ -0,0 +1,46 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgeBudgetTests {
+
+    @Test
+    void allowsOneHedgePerBudgetPercentOfRequests() {
+        HedgeBudget budget = new HedgeBudget(10, 10);
+
+        for (int i = 0; i < 9; i++) {
+            budget.onRequest();
+        }
+        assertThat(budget.tryAcquire()).isFalse();
+
+        budget.onRequest();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void capsTheCreditEarnedWhileIdle() {
+        HedgeBudget budget = new HedgeBudget(50, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void neverHedgesWithAZeroBudget() {
+        HedgeBudget budget = new HedgeBudget(0, 10);
+
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+}
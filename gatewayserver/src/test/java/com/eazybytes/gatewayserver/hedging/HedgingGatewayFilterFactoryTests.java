@@ -0,0 +1,143 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class HedgingGatewayFilterFactoryTests {
+
+    private final AtomicInteger hedgeRequests = new AtomicInteger();
+    private volatile int hedgeStatus = 200;
+    private HttpServer hedgeInstance;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        hedgeInstance = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        hedgeInstance.createContext("/api/fetch", exchange -> {
+            hedgeRequests.incrementAndGet();
+            byte[] body = "from hedge".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(hedgeStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        hedgeInstance.start();
+        WebClient webClient = WebClient.builder().build();
+        // the first call sets up the HTTP client, which would otherwise lose every race against the primary
+        webClient.get().uri("http://127.0.0.1:" + hedgeInstance.getAddress().getPort() + "/api/fetch")
+                .retrieve().toBodilessEntity().block(Duration.ofSeconds(10));
+        hedgeRequests.set(0);
+
+        ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+        when(discoveryClient.getInstances("LOANS")).thenReturn(Flux.just(
+                new DefaultServiceInstance("loans-1", "LOANS", "127.0.0.1", 1, false),
+                new DefaultServiceInstance("loans-2", "LOANS", "127.0.0.1", hedgeInstance.getAddress().getPort(), false)));
+        filter = new HedgingGatewayFilterFactory(discoveryClient, WebClient.builder(), new SimpleMeterRegistry())
+                .apply(new HedgingGatewayFilterFactory.Config()
+                        .setMaxDelay(Duration.ofMillis(50))
+                        .setBudgetPercent(100)
+                        .setMaxBurst(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgeInstance.stop(0);
+    }
+
+    @Test
+    void returnsTheHedgeWhenThePrimaryIsSlowAndDropsTheLateResponse() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, primary(Duration.ofMillis(500), HttpStatus.OK)).block(Duration.ofSeconds(5));
+
+        assertThat(hedgeRequests).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("from hedge");
+        assertThat(exchange.getResponse().getHeaders().containsKey("X-Primary")).isFalse();
+    }
+
+    @Test
+    void doesNotHedgeWhenThePrimaryAnswersInTime() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, primary(Duration.ZERO, HttpStatus.OK)).block(Duration.ofSeconds(5));
+
+        assertThat(hedgeRequests).hasValue(0);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("from primary");
+    }
+
+    @Test
+    void passesAFastServerErrorThroughWithItsBody() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, primary(Duration.ZERO, HttpStatus.SERVICE_UNAVAILABLE)).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("from primary");
+    }
+
+    @Test
+    void neverReturnsAServerErrorFromTheHedge() {
+        hedgeStatus = 500;
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, primary(Duration.ofMillis(300), HttpStatus.OK)).block(Duration.ofSeconds(5));
+
+        assertThat(hedgeRequests).hasValue(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("from primary");
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/fetch"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id("loans").uri(URI.create("lb://LOANS"))
+                .predicate(serverWebExchange -> true).build());
+        return exchange;
+    }
+
+    /**
+     * Stands in for the rest of the chain: picks the first instance like the load balancer would,
+     * then answers like the routing filter after {@code latency}.
+     */
+    private static GatewayFilterChain primary(Duration latency, HttpStatus status) {
+        return exchange -> {
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://127.0.0.1:1/api/fetch"));
+            return Mono.delay(latency).then(Mono.defer(() -> {
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(status);
+                response.getHeaders().add("X-Primary", "true");
+                return response.writeWith(Mono.just(response.bufferFactory()
+                        .wrap("from primary".getBytes(StandardCharsets.UTF_8))));
+            }));
+        };
+    }
+}
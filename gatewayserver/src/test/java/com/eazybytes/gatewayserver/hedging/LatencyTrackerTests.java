@@ -0,0 +1,45 @@
+package com.eazybytes.gatewayserver.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyTrackerTests {
+
+    @Test
+    void reportsNoPercentileUntilEnoughSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.95);
+
+        for (int i = 1; i <= 127; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentileNanos()).isEqualTo(-1L);
+    }
+
+    @Test
+    void computesThePercentileOfTheRecordedSamples() {
+        LatencyTracker tracker = new LatencyTracker(0.95);
+
+        for (int i = 1; i <= 1000; i++) {
+            tracker.record(1001 - i);
+        }
+
+        // recomputed after 896 samples: 1000 down to 105, of which the 95th percentile is 956
+        assertThat(tracker.percentileNanos()).isEqualTo(956L);
+    }
+
+    @Test
+    void onlyKeepsTheMostRecentWindow() {
+        LatencyTracker tracker = new LatencyTracker(0.5);
+
+        for (int i = 0; i < 1024; i++) {
+            tracker.record(1_000_000L);
+        }
+        for (int i = 0; i < 1024; i++) {
+            tracker.record(10L);
+        }
+
+        assertThat(tracker.percentileNanos()).isEqualTo(10L);
+    }
+}
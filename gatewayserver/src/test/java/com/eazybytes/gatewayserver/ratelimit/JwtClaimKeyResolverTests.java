@@ -0,0 +1,83 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.RoutePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class JwtClaimKeyResolverTests {
+
+    private final JwtClaimKeyResolver keyResolver = new JwtClaimKeyResolver(new RateLimitPolicyEngine(
+            new RateLimitPolicyProperties(null, Map.of("cards", new RoutePolicy(null, new Quota(5, 10),
+                    Map.of("partner", new Quota(50, 100))))), new SimpleMeterRegistry()));
+
+    @Test
+    void keysTokenHoldersByTierAndSubject() {
+        ServerWebExchange exchange = exchange("cards", jwt("alice", "ROLE_partner"));
+
+        assertThat(keyResolver.resolve(exchange).block()).isEqualTo("partner:alice");
+    }
+
+    @Test
+    void usesTheAuthenticatedTierWhenNoRoleMatchesTheRoute() {
+        assertThat(keyResolver.resolve(exchange("cards", jwt("bob", "ROLE_auditor"))).block())
+                .isEqualTo("authenticated:bob");
+        assertThat(keyResolver.resolve(exchange("loans", jwt("alice", "ROLE_partner"))).block())
+                .isEqualTo("authenticated:alice");
+    }
+
+    @Test
+    void keysAnonymousRequestsByClientAddress() {
+        assertThat(keyResolver.resolve(exchange("cards", null)).block()).isEqualTo("anonymous:10.0.0.7");
+    }
+
+    @Test
+    void treatsOtherPrincipalsAsAnonymous() {
+        Principal principal = new UsernamePasswordAuthenticationToken("carol", "secret",
+                AuthorityUtils.createAuthorityList("ROLE_partner"));
+
+        assertThat(keyResolver.resolve(exchange("cards", principal)).block()).isEqualTo("anonymous:10.0.0.7");
+    }
+
+    @Test
+    void usesAPlaceholderWithoutAClientAddress() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/eazybank/cards/api/fetch"));
+
+        assertThat(keyResolver.resolve(exchange).block()).isEqualTo("anonymous:unknown");
+    }
+
+    private static ServerWebExchange exchange(String routeId, Principal principal) {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/eazybank/" + routeId + "/api/fetch")
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 52144)));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri("lb://" + routeId.toUpperCase())
+                .predicate(serverWebExchange -> true)
+                .build());
+        return principal != null ? exchange.mutate().principal(Mono.just(principal)).build() : exchange;
+    }
+
+    private static JwtAuthenticationToken jwt(String subject, String... authorities) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .build();
+        return new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList(authorities));
+    }
+}
@@ -0,0 +1,114 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.RoutePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketRateLimiterTests {
+
+    private static final String ROUTE = "cards";
+    private static final String CALLER = "authenticated:alice";
+    private static final String CALLER_BUCKET = ROUTE + ":" + CALLER;
+    private static final String ROUTE_BUCKET = ROUTE + ":*";
+
+    @Test
+    void rejectsOnceTheCallersBurstIsUsedUp() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter(null, new RoutePolicy(null, new Quota(1, 2), Map.of()));
+
+        Response first = allowed(rateLimiter, CALLER);
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getHeaders()).containsEntry(LocalTokenBucketRateLimiter.REMAINING_HEADER, "1")
+                .containsEntry(LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER, "2");
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isTrue();
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isFalse();
+
+        assertThat(allowed(rateLimiter, "authenticated:bob").isAllowed()).isTrue();
+    }
+
+    @Test
+    void returnsTheCallersTokensWhenTheRouteRejects() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter(null,
+                new RoutePolicy(new Quota(1, 1), new Quota(1, 5), Map.of()));
+
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isTrue();
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isFalse();
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isFalse();
+
+        assertThat(rateLimiter.drainLocalConsumption()).containsOnly(
+                Map.entry(CALLER_BUCKET, 1L),
+                Map.entry(ROUTE_BUCKET, 1L));
+    }
+
+    @Test
+    void returnsTheCallerAndRouteTokensWhenTheGlobalLevelRejects() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter(new Quota(1, 1),
+                new RoutePolicy(new Quota(1, 5), new Quota(1, 5), Map.of()));
+
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isTrue();
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isFalse();
+        assertThat(allowed(rateLimiter, "authenticated:bob").isAllowed()).isFalse();
+
+        assertThat(rateLimiter.drainLocalConsumption()).containsOnly(
+                Map.entry(CALLER_BUCKET, 1L),
+                Map.entry(ROUTE_BUCKET, 1L),
+                Map.entry("*", 1L));
+    }
+
+    @Test
+    void chargesTokensConsumedOnAnotherReplica() {
+        RoutePolicy policy = new RoutePolicy(null, new Quota(1, 3), Map.of());
+        LocalTokenBucketRateLimiter replicaA = rateLimiter(null, policy);
+        LocalTokenBucketRateLimiter replicaB = rateLimiter(null, policy);
+        allowed(replicaA, CALLER);
+        allowed(replicaA, CALLER);
+        allowed(replicaB, CALLER);
+
+        Map<String, Long> consumedOnA = replicaA.drainLocalConsumption();
+        replicaB.applyRemoteConsumption(consumedOnA);
+
+        assertThat(consumedOnA).containsOnly(Map.entry(CALLER_BUCKET, 2L));
+        assertThat(replicaA.drainLocalConsumption()).isEmpty();
+        assertThat(allowed(replicaB, CALLER).isAllowed()).isFalse();
+        // remote charges are not published again, or replicas would echo each other's traffic
+        assertThat(replicaB.drainLocalConsumption()).containsOnly(Map.entry(CALLER_BUCKET, 1L));
+    }
+
+    @Test
+    void ignoresRemoteConsumptionForBucketsItDoesNotHold() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter(null, new RoutePolicy(null, new Quota(1, 1), Map.of()));
+
+        rateLimiter.applyRemoteConsumption(Map.of(CALLER_BUCKET, 10L));
+
+        assertThat(rateLimiter.drainLocalConsumption()).isEmpty();
+        assertThat(allowed(rateLimiter, CALLER).isAllowed()).isTrue();
+    }
+
+    @Test
+    void keepsARefilledBucketUntilItsTokensAreSynced() throws InterruptedException {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter(null,
+                new RoutePolicy(null, new Quota(1_000_000, 1), Map.of()));
+        allowed(rateLimiter, CALLER);
+        // one token refills in a microsecond, so the bucket is full again well before this returns
+        Thread.sleep(10);
+
+        rateLimiter.evictIdleBuckets();
+
+        assertThat(rateLimiter.drainLocalConsumption()).containsOnly(Map.entry(CALLER_BUCKET, 1L));
+    }
+
+    private static Response allowed(LocalTokenBucketRateLimiter rateLimiter, String id) {
+        return rateLimiter.isAllowed(ROUTE, id).block();
+    }
+
+    private static LocalTokenBucketRateLimiter rateLimiter(Quota global, RoutePolicy policy) {
+        RateLimitPolicyEngine policyEngine = new RateLimitPolicyEngine(
+                new RateLimitPolicyProperties(global, Map.of(ROUTE, policy)), new SimpleMeterRegistry());
+        return new LocalTokenBucketRateLimiter(1, 1, 1, policyEngine);
+    }
+}
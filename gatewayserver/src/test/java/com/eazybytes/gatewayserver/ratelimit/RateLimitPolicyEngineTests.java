@@ -0,0 +1,75 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.RoutePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPolicyEngineTests {
+
+    private static final Quota GLOBAL = new Quota(1000, 2000);
+    private static final Quota ROUTE = new Quota(100, 200);
+    private static final Quota CALLER = new Quota(5, 10);
+    private static final Quota PARTNER = new Quota(50, 100);
+    private static final Quota ADMIN = new Quota(20, 40);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitPolicyEngine policyEngine = new RateLimitPolicyEngine(new RateLimitPolicyProperties(GLOBAL,
+            Map.of("cards", new RoutePolicy(ROUTE, CALLER, Map.of("partner", PARTNER, "admin", ADMIN)),
+                    "loans", new RoutePolicy(null, null, Map.of()))), meterRegistry);
+
+    @Test
+    void picksTheMostGenerousRoleTheCallerHoldsOnTheRoute() {
+        assertThat(policyEngine.tierFor("cards", AuthorityUtils.createAuthorityList("ROLE_admin", "ROLE_partner")))
+                .isEqualTo("partner");
+        assertThat(policyEngine.tierFor("cards", AuthorityUtils.createAuthorityList("ROLE_admin")))
+                .isEqualTo("admin");
+    }
+
+    @Test
+    void fallsBackToTheAuthenticatedTierWithoutAMatchingRole() {
+        assertThat(policyEngine.tierFor("cards", AuthorityUtils.createAuthorityList("ROLE_auditor")))
+                .isEqualTo(RateLimitPolicyEngine.AUTHENTICATED_TIER);
+        assertThat(policyEngine.tierFor("cards", List.of())).isEqualTo(RateLimitPolicyEngine.AUTHENTICATED_TIER);
+        assertThat(policyEngine.tierFor("loans", AuthorityUtils.createAuthorityList("ROLE_partner")))
+                .isEqualTo(RateLimitPolicyEngine.AUTHENTICATED_TIER);
+        assertThat(policyEngine.tierFor("accounts", AuthorityUtils.createAuthorityList("ROLE_partner")))
+                .isEqualTo(RateLimitPolicyEngine.AUTHENTICATED_TIER);
+    }
+
+    @Test
+    void resolvesTheCallerQuotaByTier() {
+        assertThat(policyEngine.callerQuota("cards", "partner")).isEqualTo(PARTNER);
+        assertThat(policyEngine.callerQuota("cards", "admin")).isEqualTo(ADMIN);
+        assertThat(policyEngine.callerQuota("cards", RateLimitPolicyEngine.AUTHENTICATED_TIER)).isEqualTo(CALLER);
+        assertThat(policyEngine.callerQuota("cards", RateLimitPolicyEngine.ANONYMOUS_TIER)).isEqualTo(CALLER);
+        assertThat(policyEngine.callerQuota("loans", "partner")).isNull();
+        assertThat(policyEngine.callerQuota("accounts", "partner")).isNull();
+    }
+
+    @Test
+    void resolvesTheRouteAndGlobalQuotas() {
+        assertThat(policyEngine.routeQuota("cards")).isEqualTo(ROUTE);
+        assertThat(policyEngine.routeQuota("loans")).isNull();
+        assertThat(policyEngine.routeQuota("accounts")).isNull();
+        assertThat(policyEngine.globalQuota()).isEqualTo(GLOBAL);
+    }
+
+    @Test
+    void countsOutcomesPerRouteAndTier() {
+        policyEngine.record("cards", "partner", "allowed");
+        policyEngine.record("cards", "partner", "allowed");
+        policyEngine.record("cards", "partner", "rejected_caller");
+
+        assertThat(meterRegistry.get("gateway.ratelimit.requests")
+                .tags("route", "cards", "tier", "partner", "outcome", "allowed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("gateway.ratelimit.requests")
+                .tags("route", "cards", "tier", "partner", "outcome", "rejected_caller").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.Quota;
+import com.eazybytes.gatewayserver.ratelimit.RateLimitPolicyProperties.RoutePolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.ReactiveSubscription.ChannelMessage;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitReconcilerTests {
+
+    private static final String CHANNEL = "sync";
+    private static final String ROUTE = "cards";
+    private static final String CALLER = "authenticated:alice";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void chargesWhatAnotherReplicaPublishedToTheLocalBuckets() {
+        LocalTokenBucketRateLimiter limiterA = rateLimiter();
+        LocalTokenBucketRateLimiter limiterB = rateLimiter();
+        ReactiveStringRedisTemplate redisTemplateA = publishingTemplate();
+        ReactiveStringRedisTemplate redisTemplateB = mock(ReactiveStringRedisTemplate.class);
+        RateLimitReconciler reconcilerA = new RateLimitReconciler(limiterA, redisTemplateA, objectMapper, CHANNEL);
+        RateLimitReconciler reconcilerB = new RateLimitReconciler(limiterB, redisTemplateB, objectMapper, CHANNEL);
+        limiterA.isAllowed(ROUTE, CALLER).block();
+        limiterA.isAllowed(ROUTE, CALLER).block();
+        limiterB.isAllowed(ROUTE, CALLER).block();
+
+        reconcilerA.publish();
+        doReturn(Flux.just(new ChannelMessage<>(CHANNEL, published(redisTemplateA))))
+                .when(redisTemplateB).listenToChannel(CHANNEL);
+        reconcilerB.subscribe();
+
+        assertThat(limiterB.isAllowed(ROUTE, CALLER).block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void ignoresItsOwnMessages() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter();
+        ReactiveStringRedisTemplate redisTemplate = publishingTemplate();
+        RateLimitReconciler reconciler = new RateLimitReconciler(rateLimiter, redisTemplate, objectMapper, CHANNEL);
+        rateLimiter.isAllowed(ROUTE, CALLER).block();
+        rateLimiter.isAllowed(ROUTE, CALLER).block();
+
+        reconciler.publish();
+        doReturn(Flux.just(new ChannelMessage<>(CHANNEL, published(redisTemplate))))
+                .when(redisTemplate).listenToChannel(CHANNEL);
+        reconciler.subscribe();
+
+        assertThat(rateLimiter.isAllowed(ROUTE, CALLER).block().isAllowed()).isTrue();
+    }
+
+    @Test
+    void publishesNothingWhenNoTokensWereConsumed() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        RateLimitReconciler reconciler = new RateLimitReconciler(rateLimiter(), redisTemplate, objectMapper, CHANNEL);
+
+        reconciler.publish();
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void skipsMalformedMessages() {
+        LocalTokenBucketRateLimiter rateLimiter = rateLimiter();
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        doReturn(Flux.just(new ChannelMessage<>(CHANNEL, "not json"))).when(redisTemplate).listenToChannel(CHANNEL);
+        RateLimitReconciler reconciler = new RateLimitReconciler(rateLimiter, redisTemplate, objectMapper, CHANNEL);
+        rateLimiter.isAllowed(ROUTE, CALLER).block();
+
+        reconciler.subscribe();
+
+        assertThat(rateLimiter.isAllowed(ROUTE, CALLER).block().isAllowed()).isTrue();
+    }
+
+    private static ReactiveStringRedisTemplate publishingTemplate() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.convertAndSend(eq(CHANNEL), anyString())).thenReturn(Mono.just(1L));
+        return redisTemplate;
+    }
+
+    private static String published(ReactiveStringRedisTemplate redisTemplate) {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), payload.capture());
+        return payload.getValue();
+    }
+
+    private static LocalTokenBucketRateLimiter rateLimiter() {
+        RateLimitPolicyEngine policyEngine = new RateLimitPolicyEngine(new RateLimitPolicyProperties(null,
+                Map.of(ROUTE, new RoutePolicy(null, new Quota(1, 3), Map.of()))), new SimpleMeterRegistry());
+        return new LocalTokenBucketRateLimiter(1, 1, 1, policyEngine);
+    }
+}
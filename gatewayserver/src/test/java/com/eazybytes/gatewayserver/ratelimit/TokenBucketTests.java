@@ -0,0 +1,82 @@
+package com.eazybytes.gatewayserver.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    private static final long INTERVAL = 100_000_000L;
+
+    @Test
+    void allowsTheBurstThenOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(2);
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(1);
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(-1);
+
+        assertThat(bucket.tryConsume(1, INTERVAL)).isZero();
+        assertThat(bucket.tryConsume(1, INTERVAL)).isEqualTo(-1);
+
+        assertThat(bucket.tryConsume(1, 4 * INTERVAL)).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsARequestForMoreTokensThanAreLeftWithoutTakingAny() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        bucket.tryConsume(2, 0);
+
+        assertThat(bucket.tryConsume(2, 0)).isEqualTo(-1);
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+        assertThat(bucket.drainUnsyncedTokens()).isEqualTo(3);
+    }
+
+    @Test
+    void refundRestoresTheCapacityAndTheUnsyncedCount() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume(1, 0);
+        }
+
+        bucket.refund(1);
+
+        assertThat(bucket.drainUnsyncedTokens()).isEqualTo(2);
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+    }
+
+    @Test
+    void chargeNeverPushesTheBucketPastEmpty() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        bucket.charge(1_000, 0);
+
+        assertThat(bucket.tryConsume(1, 0)).isEqualTo(-1);
+        assertThat(bucket.tryConsume(1, INTERVAL)).isZero();
+    }
+
+    @Test
+    void chargeIsNotCountedAsLocalConsumption() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        bucket.charge(2, 0);
+
+        assertThat(bucket.drainUnsyncedTokens()).isZero();
+        assertThat(bucket.tryConsume(1, 0)).isZero();
+    }
+
+    @Test
+    void isIdleOnlyOnceFullAndSynced() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        bucket.tryConsume(1, 0);
+
+        assertThat(bucket.isIdle(0)).isFalse();
+        assertThat(bucket.isIdle(INTERVAL)).isFalse();
+
+        bucket.drainUnsyncedTokens();
+
+        assertThat(bucket.isIdle(0)).isFalse();
+        assertThat(bucket.isIdle(INTERVAL)).isTrue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.eazybytes.idgenerator;
+
+import org.slf4j.Logger;
+
+import javax.sql.DataSource;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Thread-safe, collision-free generator for account, card and loan numbers.
+ * <p>
+ * Sequence values are reserved in blocks from a row of the {@code id_block} table and handed out
+ * with a lock-free counter. Replicas share the table, so their blocks never overlap. Once half of
+ * the current block is used, the next one is reserved on a background thread, in its own
+ * transaction and on its own connection: callers never wait on the {@code id_block} row lock or
+ * hold a second connection for it, and switching blocks is only a pointer swap.
+ * <p>
+ * Each sequence value is spread over the number space [firstNumber, firstNumber + capacity) with
+ * a fixed bijective permutation, so that numbers are not trivially consecutive.
+ */
+public class BlockIdGenerator implements AutoCloseable {
+
+    private final Logger logger = getLogger(BlockIdGenerator.class);
+    private final BlockReservation reservation;
+    private final String blockName;
+    private final long firstNumber;
+    private final long capacity;
+    private final long multiplier;
+    private final int blockSize;
+    private final ExecutorService refillExecutor;
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private volatile Block block = new Block(new AtomicLong(), 0L, -1L);
+    private CompletableFuture<Block> nextBlock;
+
+    /**
+     * @param dataSource  the database holding the {@code id_block} table
+     * @param blockName   the {@code id_block} row of this kind of number
+     * @param firstNumber the smallest number handed out
+     * @param capacity    how many numbers there are from {@code firstNumber} on
+     * @param multiplier  permutation factor, must be coprime with {@code capacity}
+     * @param blockSize   how many values to reserve at a time
+     */
+    public BlockIdGenerator(DataSource dataSource, String blockName, long firstNumber, long capacity,
+                            long multiplier, int blockSize) {
+        this(new JdbcBlockReservation(dataSource), blockName, firstNumber, capacity, multiplier, blockSize);
+    }
+
+    BlockIdGenerator(BlockReservation reservation, String blockName, long firstNumber, long capacity,
+                     long multiplier, int blockSize) {
+        if (!BigInteger.valueOf(multiplier).gcd(BigInteger.valueOf(capacity)).equals(BigInteger.ONE)) {
+            throw new IllegalArgumentException("Multiplier " + multiplier + " is not coprime with " + capacity);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.reservation = reservation;
+        this.blockName = blockName;
+        this.firstNumber = firstNumber;
+        this.capacity = capacity;
+        this.multiplier = multiplier;
+        this.blockSize = blockSize;
+        this.refillExecutor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name(blockName + "-id-block-refill").daemon().factory());
+    }
+
+    /**
+     * Returns the next unique number.
+     *
+     * @return a number in [firstNumber, firstNumber + capacity)
+     */
+    public long next() {
+        return firstNumber + permute(nextSequence());
+    }
+
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    private long nextSequence() {
+        while (true) {
+            Block current = block;
+            long sequence = current.next().getAndIncrement();
+            if (sequence < current.limit()) {
+                // exactly one caller sees this value
+                if (sequence == current.prefetchAt()) {
+                    prefetch();
+                }
+                return sequence;
+            }
+            swapLock.lock();
+            try {
+                if (block == current) {
+                    block = takeNextBlock();
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    private void prefetch() {
+        swapLock.lock();
+        try {
+            if (nextBlock == null) {
+                nextBlock = CompletableFuture.supplyAsync(this::reserveBlock, refillExecutor);
+            }
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /**
+     * Called with the swap lock held. Only waits if the prefetch has not finished yet, or failed.
+     */
+    private Block takeNextBlock() {
+        if (nextBlock == null) {
+            nextBlock = CompletableFuture.supplyAsync(this::reserveBlock, refillExecutor);
+        }
+        try {
+            return nextBlock.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        } finally {
+            // a failed reservation is retried by the next caller
+            nextBlock = null;
+        }
+    }
+
+    private Block reserveBlock() {
+        long start = reservation.reserve(blockName, blockSize);
+        long limit = Math.min(start + blockSize, capacity);
+        if (start >= limit) {
+            throw new IllegalStateException("Number space of " + blockName + " exhausted");
+        }
+        logger.debug("Reserved {} number block [{}, {})", blockName, start, limit);
+        return new Block(new AtomicLong(start), limit, start + (limit - start) / 2);
+    }
+
+    private long permute(long sequence) {
+        return (sequence * multiplier) % capacity;
+    }
+
+    private record Block(AtomicLong next, long limit, long prefetchAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.eazybytes.idgenerator;
+
+/**
+ * Reserves a contiguous range of sequence values for one generator.
+ */
+@FunctionalInterface
+interface BlockReservation {
+
+    /**
+     * @param blockName the {@code id_block} row to reserve from
+     * @param blockSize how many values to reserve
+     * @return the first reserved value; the block is [start, start + blockSize)
+     */
+    long reserve(String blockName, int blockSize);
+}
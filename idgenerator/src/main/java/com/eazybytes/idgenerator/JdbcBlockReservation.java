@@ -0,0 +1,36 @@
+package com.eazybytes.idgenerator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Reserves blocks from the {@code id_block} table, each in its own short transaction. The row lock
+ * serializes replicas, so their blocks never overlap.
+ */
+class JdbcBlockReservation implements BlockReservation {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    JdbcBlockReservation(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public long reserve(String blockName, int blockSize) {
+        Long start = transactionTemplate.execute(status -> {
+            Long nextValue = jdbcTemplate.query("SELECT next_value FROM id_block WHERE name = ? FOR UPDATE",
+                    rs -> rs.next() ? rs.getLong(1) : null, blockName);
+            if (nextValue == null) {
+                throw new IllegalStateException("No id_block row found for " + blockName);
+            }
+            jdbcTemplate.update("UPDATE id_block SET next_value = ? WHERE name = ?", nextValue + blockSize, blockName);
+            return nextValue;
+        });
+        return start;
+    }
+}
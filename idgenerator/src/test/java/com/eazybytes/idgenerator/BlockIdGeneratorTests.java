@@ -0,0 +1,105 @@
+package com.eazybytes.idgenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIdGeneratorTests {
+
+    private static final long FIRST_NUMBER = 1_000L;
+    private static final long CAPACITY = 1_000_000L;
+    private static final long MULTIPLIER = 7_919L;
+
+    @Test
+    void handsOutUniqueNumbersAcrossThreads() throws Exception {
+        AtomicLong nextValue = new AtomicLong();
+        try (BlockIdGenerator generator = new BlockIdGenerator(
+                (name, size) -> nextValue.getAndAdd(size), "test", FIRST_NUMBER, CAPACITY, MULTIPLIER, 10)) {
+            Set<Long> numbers = ConcurrentHashMap.newKeySet();
+            ExecutorService callers = Executors.newFixedThreadPool(16);
+            List<Future<?>> futures = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(callers.submit(() -> {
+                    for (int n = 0; n < 1_000; n++) {
+                        long number = generator.next();
+                        assertTrue(number >= FIRST_NUMBER && number < FIRST_NUMBER + CAPACITY);
+                        assertTrue(numbers.add(number), "duplicate number " + number);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            callers.shutdown();
+            assertEquals(16_000, numbers.size());
+        }
+    }
+
+    @Test
+    void reservesBlocksAheadAndNeverOnTheCallerThread() {
+        List<String> reservingThreads = new CopyOnWriteArrayList<>();
+        AtomicLong nextValue = new AtomicLong();
+        try (BlockIdGenerator generator = new BlockIdGenerator((name, size) -> {
+            reservingThreads.add(Thread.currentThread().getName());
+            return nextValue.getAndAdd(size);
+        }, "test", FIRST_NUMBER, CAPACITY, MULTIPLIER, 10)) {
+            for (int i = 0; i < 6; i++) {
+                generator.next();
+            }
+            // the second block was requested once half of the first one was used
+            waitFor(() -> reservingThreads.size() == 2);
+            for (int i = 0; i < 4; i++) {
+                generator.next();
+            }
+            assertEquals(2, reservingThreads.size());
+            assertTrue(reservingThreads.stream().allMatch(name -> name.equals("test-id-block-refill")));
+        }
+    }
+
+    @Test
+    void retriesAFailedReservation() {
+        AtomicInteger attempts = new AtomicInteger();
+        try (BlockIdGenerator generator = new BlockIdGenerator((name, size) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return 0L;
+        }, "test", FIRST_NUMBER, CAPACITY, MULTIPLIER, 10)) {
+            assertThrows(IllegalStateException.class, generator::next);
+            assertEquals(FIRST_NUMBER, generator.next());
+        }
+    }
+
+    @Test
+    void failsOnceTheNumberSpaceIsExhausted() {
+        try (BlockIdGenerator generator = new BlockIdGenerator(
+                (name, size) -> CAPACITY, "test", FIRST_NUMBER, CAPACITY, MULTIPLIER, 10)) {
+            assertThrows(IllegalStateException.class, generator::next);
+        }
+    }
+
+    @Test
+    void rejectsAMultiplierThatIsNotAPermutation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BlockIdGenerator((name, size) -> 0L, "test", FIRST_NUMBER, CAPACITY, 10L, 10));
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for condition");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -12,7 +12,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,6 +25,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import static com.eazybytes.loans.constants.LoanConstants.*;
 
 @Tag(
@@ -106,6 +111,39 @@ public class LoansController {
         return ResponseEntity.status(HttpStatus.OK).body(loansDto);
     }
 
+    @Operation(
+            summary = "Fetch Loan Details In Bulk REST API",
+            description = "REST API to fetch loan details for a list of up to " + MAX_BATCH_SIZE
+                    + " mobile numbers in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/fetchBatch")
+    public ResponseEntity<List<LoansDto>> fetchLoanDetailsBatch(
+            @RequestHeader("eazybank-correlation-id")
+            String correlationId,
+
+            @RequestBody
+            @NotEmpty(message = "Mobile numbers can not be empty")
+            @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " mobile numbers per call")
+            List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        LOGGER.debug("fetchLoanDetailsBatch method start for {} mobile numbers", mobileNumbers.size());
+        List<LoansDto> loansDtos = loansService.fetchLoans(mobileNumbers);
+        LOGGER.debug("fetchLoanDetailsBatch method end");
+        return ResponseEntity.status(HttpStatus.OK).body(loansDtos);
+    }
+
     @Operation(
             summary = "Update Loan Details REST API",
             description = "REST API to update loan details based on a loan number"
@@ -182,6 +220,45 @@ public class LoansController {
         }
     }
 
+    @Operation(
+            summary = "Repay Loan REST API",
+            description = "REST API to apply a repayment to a loan, up to its outstanding amount"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PatchMapping("/repay")
+    public ResponseEntity<ResponseDto> repayLoan(
+            @RequestParam
+            @Pattern(regexp = "(^$|[0-9]{12})", message = "LoanNumber must be 12 digits")
+            String loanNumber,
+
+            @RequestParam
+            @Positive(message = "Amount should be greater than zero")
+            int amount) {
+        loansService.repayLoan(loanNumber, amount);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(STATUS_200, MESSAGE_200));
+    }
+
     @Operation(
             summary = "Get Build Info REST API",
             description = "REST API to fetch build version info of Loans microservice"
@@ -2,6 +2,7 @@ package com.eazybytes.loans.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -52,4 +53,11 @@ public class LoansDto {
     )
     private int outstandingAmount;
 
+    @Schema(
+            description = "Version of the loan as last read; updates made from an older version are rejected",
+            example = "3"
+    )
+    @NotNull(message = "Version can not be null; send the version returned by the fetch")
+    private Long version;
+
 }
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Entity
@@ -28,4 +29,7 @@ public class Loans extends BaseEntity {
     private int amountPaid;
 
     private int outstandingAmount;
+
+    @Version
+    private Long version;
 }
@@ -12,6 +12,7 @@ public class LoansMapper {
         loansDto.setTotalLoan(loans.getTotalLoan());
         loansDto.setAmountPaid(loans.getAmountPaid());
         loansDto.setOutstandingAmount(loans.getOutstandingAmount());
+        loansDto.setVersion(loans.getVersion());
         return loansDto;
     }
 
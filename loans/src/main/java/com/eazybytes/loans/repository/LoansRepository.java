@@ -1,9 +1,16 @@
 package com.eazybytes.loans.repository;
 
 import com.eazybytes.loans.entity.Loans;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +18,34 @@ public interface LoansRepository extends JpaRepository<Loans, Long> {
     Optional<Loans> findByMobileNumber(String mobileNumber);
 
     Optional<Loans> findByLoanNumber(String loanNumber);
+
+    List<Loans> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    /**
+     * Deletes the loan of a customer in a single statement, without loading it first.
+     *
+     * @return the number of deleted rows, 0 if the customer has no loan
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Loans l WHERE l.mobileNumber = :mobileNumber")
+    int deleteByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    boolean existsByLoanNumber(String loanNumber);
+
+    /**
+     * Applies a repayment of {@code amount} in a single statement, only if it does not exceed the outstanding amount.
+     *
+     * @return 1 if the repayment was applied, 0 if the loan does not exist or less than {@code amount} is outstanding
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Loans l SET l.amountPaid = l.amountPaid + :amount, "
+            + "l.outstandingAmount = l.outstandingAmount - :amount, "
+            + "l.version = l.version + 1, l.updatedAt = :updatedAt, l.updatedBy = :updatedBy "
+            + "WHERE l.loanNumber = :loanNumber AND l.outstandingAmount >= :amount")
+    int repayByLoanNumber(@Param("loanNumber") String loanNumber,
+                          @Param("amount") int amount,
+                          @Param("updatedAt") LocalDateTime updatedAt,
+                          @Param("updatedBy") String updatedBy);
 }
@@ -2,6 +2,8 @@ package com.eazybytes.loans.service;
 
 import com.eazybytes.loans.dto.LoansDto;
 
+import java.util.List;
+
 public interface ILoansService {
 
     /**
@@ -17,6 +19,14 @@ public interface ILoansService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     * Fetch loan details for many mobile numbers in a single lookup.
+     * Mobile numbers without a loan are skipped.
+     * @param mobileNumbers the mobile numbers associated with the loans
+     * @return the loan details found, as LoansDto
+     */
+    List<LoansDto> fetchLoans(List<String> mobileNumbers);
+
     /**
      * Update loan details based on the provided LoansDto.
      * @param loansDto the loan details to be updated
@@ -30,4 +40,11 @@ public interface ILoansService {
      * @return true if the deletion was successful, false otherwise
      */
     boolean deleteLoan(String mobileNumber);
+
+    /**
+     * Apply a repayment to the loan with the given loan number.
+     * @param loanNumber the loan number
+     * @param amount the amount repaid, at most the outstanding amount
+     */
+    void repayLoan(String loanNumber, int amount);
 }
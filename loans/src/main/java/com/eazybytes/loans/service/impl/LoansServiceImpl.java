@@ -1,17 +1,25 @@
 package com.eazybytes.loans.service.impl;
 
+import com.eazybytes.loans.audit.AuditAwareImpl;
 import com.eazybytes.loans.dto.LoansDto;
 import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.exception.InvalidRepaymentException;
 import com.eazybytes.loans.exception.LoanAlreadyExistsException;
 import com.eazybytes.loans.exception.ResourceNotFoundException;
 import com.eazybytes.loans.mapper.LoansMapper;
 import com.eazybytes.loans.repository.LoansRepository;
 import com.eazybytes.loans.service.ILoansService;
+import com.eazybytes.idgenerator.BlockIdGenerator;
 import lombok.AllArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 import static com.eazybytes.loans.constants.LoanConstants.HOME_LOAN;
 import static com.eazybytes.loans.constants.LoanConstants.NEW_LOAN_LIMIT;
@@ -21,6 +29,8 @@ import static com.eazybytes.loans.constants.LoanConstants.NEW_LOAN_LIMIT;
 public class LoansServiceImpl implements ILoansService {
 
     private final LoansRepository loansRepository;
+    private final BlockIdGenerator loanNumberGenerator;
+    private final AuditAwareImpl auditAwareImpl;
 
     /**
      * Create a new loan for the given mobile number.
@@ -31,17 +41,30 @@ public class LoansServiceImpl implements ILoansService {
      */
     @Override
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans = loansRepository.findByMobileNumber(mobileNumber);
-        if (optionalLoans.isPresent()) {
-            throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber " + mobileNumber);
+        try {
+            loansRepository.save(createNewLoan(mobileNumber));
+        } catch (DataIntegrityViolationException ex) {
+            if (isDuplicateMobileNumber(ex)) {
+                throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber " + mobileNumber);
+            }
+            throw ex;
         }
-        loansRepository.save(createNewLoan(mobileNumber));
+    }
+
+    /**
+     * The unique index on mobile_number turns a concurrent second create into a duplicate-key
+     * error, so no existence check is needed up front.
+     */
+    private static boolean isDuplicateMobileNumber(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains("mobile_number");
     }
 
     private Loans createNewLoan(String mobileNumber) {
         Loans newLoan = new Loans();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(Long.toString(loanNumberGenerator.next()));
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(HOME_LOAN);
         newLoan.setTotalLoan(NEW_LOAN_LIMIT);
@@ -65,6 +88,20 @@ public class LoansServiceImpl implements ILoansService {
         return LoansMapper.mapToLoansDto(loans, new LoansDto());
     }
 
+    /**
+     * Fetch loan details for many mobile numbers in a single lookup.
+     * Mobile numbers without a loan are skipped.
+     *
+     * @param mobileNumbers the mobile numbers associated with the loans
+     * @return the loan details found, as LoansDto
+     */
+    @Override
+    public List<LoansDto> fetchLoans(List<String> mobileNumbers) {
+        return loansRepository.findByMobileNumberIn(mobileNumbers).stream()
+                .map(loans -> LoansMapper.mapToLoansDto(loans, new LoansDto()))
+                .toList();
+    }
+
     /**
      * Update loan details based on the provided LoansDto.
      *
@@ -76,6 +113,10 @@ public class LoansServiceImpl implements ILoansService {
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        // Hibernate checks the version it loaded, not one set on the entity, so the caller's is compared here
+        if (!Objects.equals(loansDto.getVersion(), loans.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Loans.class, loans.getLoanId());
+        }
         LoansMapper.mapToLoans(loansDto, loans);
         loansRepository.save(loans);
         return true;
@@ -90,10 +131,31 @@ public class LoansServiceImpl implements ILoansService {
      */
     @Override
     public boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        loansRepository.deleteById(loans.getLoanId());
+        if (loansRepository.deleteByMobileNumber(mobileNumber) == 0) {
+            throw new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber);
+        }
         return true;
     }
+
+    /**
+     * Apply a repayment to the loan with the given loan number. The outstanding amount check and
+     * the update are one conditional statement, so concurrent repayments are never lost and can
+     * never take the outstanding amount below zero.
+     *
+     * @param loanNumber the loan number
+     * @param amount the amount repaid, at most the outstanding amount
+     * @throws ResourceNotFoundException if no loan is found for the loan number
+     * @throws InvalidRepaymentException if the amount exceeds the outstanding amount
+     */
+    @Override
+    public void repayLoan(String loanNumber, int amount) {
+        int updated = loansRepository.repayByLoanNumber(loanNumber, amount, LocalDateTime.now(),
+                auditAwareImpl.getCurrentAuditor().orElse(null));
+        if (updated == 0) {
+            if (!loansRepository.existsByLoanNumber(loanNumber)) {
+                throw new ResourceNotFoundException("Loan", "LoanNumber", loanNumber);
+            }
+            throw new InvalidRepaymentException("Repayment exceeds the outstanding amount on loan " + loanNumber);
+        }
+    }
 }
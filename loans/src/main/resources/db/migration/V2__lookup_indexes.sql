@@ -0,0 +1,27 @@
+-- Databases that predate the migrations may hold duplicates the unique constraints below would
+-- reject. Stop with a readable error rather than a bare duplicate key failure; the README describes
+-- the cleanup.
+DROP PROCEDURE IF EXISTS `check_loans_duplicates`;
+
+DELIMITER //
+
+CREATE PROCEDURE `check_loans_duplicates`()
+BEGIN
+    IF EXISTS (SELECT 1 FROM `loans` GROUP BY `mobile_number` HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'loans.mobile_number has duplicates; resolve them before V2 adds its unique constraint';
+    END IF;
+    IF EXISTS (SELECT 1 FROM `loans` GROUP BY `loan_number` HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'loans.loan_number has duplicates; resolve them before V2 adds its unique constraint';
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL `check_loans_duplicates`();
+DROP PROCEDURE `check_loans_duplicates`;
+
+-- A customer holds at most one loan, and both columns are used for lookups
+ALTER TABLE `loans` ADD CONSTRAINT `uk_loans_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `loans` ADD CONSTRAINT `uk_loans_loan_number` UNIQUE (`loan_number`);
@@ -0,0 +1,2 @@
+-- Optimistic locking for read-modify-write updates; the atomic repay statement bumps it too
+ALTER TABLE `loans` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,117 @@
+package com.eazybytes.loans.controller;
+
+import com.eazybytes.loans.audit.AuditAwareImpl;
+import com.eazybytes.loans.constants.LoanConstants;
+import com.eazybytes.loans.dto.LoansContactInfoDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.exception.GlobalExceptionHandler;
+import com.eazybytes.loans.repository.LoansRepository;
+import com.eazybytes.loans.service.impl.LoansServiceImpl;
+import com.eazybytes.idgenerator.BlockIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LoansControllerTests {
+
+    private static final String LOAN_NUMBER = "100646930341";
+
+    private final LoansRepository loansRepository = mock(LoansRepository.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LoansServiceImpl loansService = new LoansServiceImpl(loansRepository, mock(BlockIdGenerator.class),
+                new AuditAwareImpl());
+        mockMvc = MockMvcBuilders.standaloneSetup(validated(new LoansController(loansService, mock(LoansContactInfoDto.class))))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        Loans loans = new Loans();
+        loans.setLoanId(1L);
+        loans.setLoanNumber(LOAN_NUMBER);
+        loans.setVersion(4L);
+        when(loansRepository.findByLoanNumber(LOAN_NUMBER)).thenReturn(Optional.of(loans));
+    }
+
+    @Test
+    void rejectsAnUpdateMadeFromAnOlderVersionWithConflict() throws Exception {
+        mockMvc.perform(put("/api/loans/update").contentType(MediaType.APPLICATION_JSON).content(update(3)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("CONFLICT"));
+
+        verify(loansRepository, never()).save(any());
+    }
+
+    @Test
+    void appliesAnUpdateMadeFromTheCurrentVersion() throws Exception {
+        mockMvc.perform(put("/api/loans/update").contentType(MediaType.APPLICATION_JSON).content(update(4)))
+                .andExpect(status().isOk());
+
+        verify(loansRepository).save(any());
+    }
+
+    @Test
+    void rejectsAnUpdateWithoutAVersionWithBadRequest() throws Exception {
+        String withoutVersion = """
+                {"mobileNumber": "4354437687", "loanNumber": "%s", "loanType": "Home Loan", "totalLoan": 100000,
+                 "amountPaid": 1000, "outstandingAmount": 99000}
+                """.formatted(LOAN_NUMBER);
+
+        mockMvc.perform(put("/api/loans/update").contentType(MediaType.APPLICATION_JSON).content(withoutVersion))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.version").exists());
+
+        verify(loansRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectsABatchLargerThanTheMaximumWithBadRequest() throws Exception {
+        mockMvc.perform(post("/api/loans/fetchBatch").header("eazybank-correlation-id", "test")
+                        .contentType(MediaType.APPLICATION_JSON).content(mobileNumbers(LoanConstants.MAX_BATCH_SIZE + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"));
+
+        verifyNoInteractions(loansRepository);
+    }
+
+    private static String mobileNumbers(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "\"%010d\"".formatted(i))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /** Standalone MockMvc has no proxy, so apply the {@code @Validated} method validation by hand. */
+    private static Object validated(Object controller) {
+        ProxyFactory proxyFactory = new ProxyFactory(controller);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor());
+        return proxyFactory.getProxy();
+    }
+
+    private static String update(long version) {
+        return """
+                {"mobileNumber": "4354437687", "loanNumber": "%s", "loanType": "Home Loan", "totalLoan": 100000,
+                 "amountPaid": 1000, "outstandingAmount": 99000, "version": %d}
+                """.formatted(LOAN_NUMBER, version);
+    }
+}
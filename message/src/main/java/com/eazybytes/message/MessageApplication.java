@@ -1,9 +1,13 @@
 package com.eazybytes.message;
 
+import com.eazybytes.message.config.MessageDedupProperties;
+import com.eazybytes.message.config.MessageDeliveryProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({MessageDeliveryProperties.class, MessageDedupProperties.class})
 public class MessageApplication {
 
 	public static void main(String[] args) {
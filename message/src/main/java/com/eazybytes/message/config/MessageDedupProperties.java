@@ -0,0 +1,26 @@
+package com.eazybytes.message.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizing for the duplicate message filter.
+ *
+ * @param window             how long a delivered message is remembered by the Bloom pre-filter
+ * @param expectedInsertions number of messages expected per window, used to size the Bloom pre-filter
+ * @param falsePositiveRate  chance of a new message needing the exact LRU lookup
+ * @param recentCapacity     number of most recently delivered messages remembered exactly
+ */
+@ConfigurationProperties(prefix = "message.dedup")
+public record MessageDedupProperties(
+        @DefaultValue("10m") Duration window,
+
+        @DefaultValue("100000") int expectedInsertions,
+
+        @DefaultValue("0.001") double falsePositiveRate,
+
+        @DefaultValue("10000") int recentCapacity
+) {
+}
@@ -0,0 +1,42 @@
+package com.eazybytes.message.config;
+
+import com.eazybytes.message.sender.EmailSender;
+import com.eazybytes.message.sender.LoggingEmailSender;
+import com.eazybytes.message.sender.LoggingSmsSender;
+import com.eazybytes.message.sender.SmsSender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class MessageDeliveryConfig {
+
+    /**
+     * Executor running the email and SMS senders. Sized to the number of cores unless
+     * {@code message.delivery.parallelism} says otherwise.
+     *
+     * @param properties the delivery properties
+     * @return a fixed size thread pool
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService messageDeliveryExecutor(MessageDeliveryProperties properties) {
+        int parallelism = properties.parallelism() > 0
+                ? properties.parallelism() : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(parallelism);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EmailSender emailSender() {
+        return new LoggingEmailSender();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SmsSender smsSender() {
+        return new LoggingSmsSender();
+    }
+}
@@ -0,0 +1,24 @@
+package com.eazybytes.message.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the batched email/SMS delivery pipeline.
+ *
+ * @param chunkSize   number of messages handed to a sender in one call; every polled batch is
+ *                    split into chunks of this size which are delivered in parallel
+ * @param parallelism number of threads running the senders, 0 means one per available core
+ * @param timeout     maximum time to wait for a polled batch to be delivered before it is retried
+ */
+@ConfigurationProperties(prefix = "message.delivery")
+public record MessageDeliveryProperties(
+        @DefaultValue("50") int chunkSize,
+
+        @DefaultValue("0") int parallelism,
+
+        @DefaultValue("30s") Duration timeout
+) {
+}
@@ -0,0 +1,120 @@
+package com.eazybytes.message.dedup;
+
+import com.eazybytes.message.config.MessageDedupProperties;
+import com.eazybytes.message.dto.AccountsMessageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which messages were already delivered so that Kafka redeliveries can be dropped
+ * before any email, SMS or acknowledgement is sent. A message is identified by its account
+ * number and event id.
+ * <p>
+ * Deliveries are held exactly in a bounded LRU. A windowed Bloom filter sits in front of it so
+ * that the common case, a message never seen before, is answered without taking the LRU lock.
+ * Only an exact LRU hit counts as a duplicate, so a Bloom false positive never drops a message.
+ * Messages are only recorded after they were delivered, so a failed batch is retried in full.
+ * <p>
+ * Every delivery is also published, keyed by message, to the compacted {@code message-delivered}
+ * topic, which every replica replays from the start into {@link #recordDelivered}. A restarted
+ * replica, or one that takes over partitions in a rebalance, therefore still recognises the
+ * messages delivered within the retention of that topic.
+ */
+@Component
+public class MessageDeduplicator {
+
+    public static final String MESSAGE_DELIVERED_BINDING = "messageDelivered-out-0";
+
+    private final Logger logger = LoggerFactory.getLogger(MessageDeduplicator.class);
+    private final StreamBridge streamBridge;
+    private final WindowedBloomFilter bloomFilter;
+    private final Map<String, Boolean> recent;
+
+    public MessageDeduplicator(MessageDedupProperties properties, StreamBridge streamBridge) {
+        this.streamBridge = streamBridge;
+        this.bloomFilter = new WindowedBloomFilter(properties.expectedInsertions(),
+                properties.falsePositiveRate(), properties.window().toNanos());
+        int capacity = Math.max(1, properties.recentCapacity());
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Drop the messages that were already delivered, and repeats of the same message within the batch.
+     *
+     * @param batch the polled messages
+     * @return the messages still to deliver, in their original order
+     */
+    public List<AccountsMessageDto> removeDuplicates(List<AccountsMessageDto> batch) {
+        Set<String> keys = new HashSet<>();
+        List<AccountsMessageDto> fresh = new ArrayList<>(batch.size());
+        for (AccountsMessageDto accountsMessageDto : batch) {
+            if (keys.add(key(accountsMessageDto)) && !isDuplicate(accountsMessageDto)) {
+                fresh.add(accountsMessageDto);
+            }
+        }
+        return fresh;
+    }
+
+    public boolean isDuplicate(AccountsMessageDto accountsMessageDto) {
+        String key = key(accountsMessageDto);
+        if (!bloomFilter.mightContain(key)) {
+            return false;
+        }
+        synchronized (recent) {
+            return recent.get(key) != null;
+        }
+    }
+
+    /**
+     * Records a delivered message on this replica and in the {@code message-delivered} topic.
+     *
+     * @param accountsMessageDto the delivered message
+     */
+    public void markDelivered(AccountsMessageDto accountsMessageDto) {
+        String key = key(accountsMessageDto);
+        recordDelivered(key);
+        try {
+            streamBridge.send(MESSAGE_DELIVERED_BINDING, MessageBuilder.withPayload(key)
+                    .setHeader(KafkaHeaders.KEY, key.getBytes(StandardCharsets.UTF_8))
+                    .build());
+        } catch (RuntimeException ex) {
+            // still remembered on this replica, only a restart or rebalance would resend it
+            logger.warn("Failed to record delivery of message {} durably", key, ex);
+        }
+    }
+
+    /**
+     * Records a message delivered by this or another replica, as replayed from the
+     * {@code message-delivered} topic.
+     *
+     * @param key the account number and event id of the delivered message
+     */
+    public void recordDelivered(String key) {
+        synchronized (recent) {
+            recent.put(key, Boolean.TRUE);
+        }
+        bloomFilter.put(key);
+    }
+
+    private static String key(AccountsMessageDto accountsMessageDto) {
+        return accountsMessageDto.accountNumber() + ":" + accountsMessageDto.eventId();
+    }
+}
@@ -0,0 +1,112 @@
+package com.eazybytes.message.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter that forgets keys after one to two windows. Two generations are kept:
+ * keys are added to the current one and looked up in both, and when a window elapses the
+ * previous generation is dropped and a fresh one becomes current.
+ */
+class WindowedBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long windowNanos;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    WindowedBloomFilter(int expectedInsertions, double falsePositiveRate, long windowNanos) {
+        int insertions = Math.max(1, expectedInsertions);
+        double fpp = Math.min(0.5, Math.max(Double.MIN_VALUE, falsePositiveRate));
+        long bits = (long) Math.ceil(-insertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+        this.windowNanos = windowNanos;
+        this.current = new Generation(bitCount, System.nanoTime());
+        this.previous = new Generation(bitCount, current.startedAt);
+    }
+
+    boolean mightContain(String key) {
+        long[] hashes = hash(key);
+        Generation generation = rotateIfExpired();
+        return generation.mightContain(hashes, hashCount) || previous.mightContain(hashes, hashCount);
+    }
+
+    void put(String key) {
+        rotateIfExpired().put(hash(key), hashCount);
+    }
+
+    private Generation rotateIfExpired() {
+        Generation generation = current;
+        long now = System.nanoTime();
+        if (now - generation.startedAt < windowNanos) {
+            return generation;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bitCount, now);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, split into two halves with a murmur finalizer for double hashing.
+     */
+    private static long[] hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        long h1 = mix(h);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+        return new long[]{h1, h2};
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final int bitCount;
+        private final long startedAt;
+
+        private Generation(int bitCount, long startedAt) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+            this.bitCount = bitCount;
+            this.startedAt = startedAt;
+        }
+
+        private boolean mightContain(long[] hashes, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = index(hashes, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long[] hashes, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = index(hashes, i);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long value;
+                while (((value = words.get(word)) & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        private int index(long[] hashes, int i) {
+            return (int) Long.remainderUnsigned(hashes[0] + i * hashes[1], bitCount);
+        }
+    }
+}
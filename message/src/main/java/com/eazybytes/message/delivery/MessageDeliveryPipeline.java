@@ -0,0 +1,116 @@
+package com.eazybytes.message.delivery;
+
+import com.eazybytes.message.config.MessageDeliveryProperties;
+import com.eazybytes.message.dedup.MessageDeduplicator;
+import com.eazybytes.message.dto.AccountsMessageDto;
+import com.eazybytes.message.sender.EmailSender;
+import com.eazybytes.message.sender.SmsSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers a polled batch of account messages. The batch is split into chunks, and every chunk
+ * is sent by email and SMS in parallel on {@code messageDeliveryExecutor}. As soon as both sends of
+ * a chunk succeed its account numbers are published to {@code communication-sent}.
+ * <p>
+ * Messages already delivered are dropped up front by the {@link MessageDeduplicator}. If any chunk
+ * fails or the batch misses its deadline an exception is thrown, so the binder redelivers the batch;
+ * chunks that were already acknowledged are then skipped. A batch that missed its deadline is
+ * abandoned: its senders that have not started yet are skipped, and chunks that still complete
+ * are not acknowledged, since the redelivered batch sends them again.
+ */
+@Component
+public class MessageDeliveryPipeline {
+
+    public static final String COMMUNICATION_SENT_BINDING = "communicationSent-out-0";
+
+    private final Logger logger = LoggerFactory.getLogger(MessageDeliveryPipeline.class);
+    private final EmailSender emailSender;
+    private final SmsSender smsSender;
+    private final StreamBridge streamBridge;
+    private final ExecutorService messageDeliveryExecutor;
+    private final MessageDeliveryProperties properties;
+    private final MessageDeduplicator messageDeduplicator;
+
+    public MessageDeliveryPipeline(EmailSender emailSender, SmsSender smsSender, StreamBridge streamBridge,
+                                   ExecutorService messageDeliveryExecutor, MessageDeliveryProperties properties,
+                                   MessageDeduplicator messageDeduplicator) {
+        this.emailSender = emailSender;
+        this.smsSender = smsSender;
+        this.streamBridge = streamBridge;
+        this.messageDeliveryExecutor = messageDeliveryExecutor;
+        this.properties = properties;
+        this.messageDeduplicator = messageDeduplicator;
+    }
+
+    public void deliver(List<AccountsMessageDto> polled) {
+        List<AccountsMessageDto> batch = messageDeduplicator.removeDuplicates(polled);
+        if (batch.size() < polled.size()) {
+            logger.info("Skipping {} already delivered messages", polled.size() - batch.size());
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int chunkSize = Math.max(1, properties.chunkSize());
+        // CompletableFuture.cancel does not interrupt running senders, so they check this instead
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<CompletableFuture<Void>> chunkFutures = new ArrayList<>((batch.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            chunkFutures.add(deliverChunk(batch.subList(from, Math.min(batch.size(), from + chunkSize)), abandoned));
+        }
+
+        try {
+            CompletableFuture.allOf(chunkFutures.toArray(CompletableFuture[]::new))
+                    .get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to deliver " + batch.size() + " messages", ex.getCause());
+        } catch (TimeoutException ex) {
+            abandoned.set(true);
+            chunkFutures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Delivery of " + batch.size() + " messages did not complete within "
+                    + properties.timeout(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while delivering " + batch.size() + " messages", ex);
+        }
+        logger.debug("Delivered {} messages in {} chunks", batch.size(), chunkFutures.size());
+    }
+
+    private CompletableFuture<Void> deliverChunk(List<AccountsMessageDto> chunk, AtomicBoolean abandoned) {
+        CompletableFuture<Void> email = CompletableFuture.runAsync(() -> {
+            if (!abandoned.get()) {
+                emailSender.send(chunk);
+            }
+        }, messageDeliveryExecutor);
+        CompletableFuture<Void> sms = CompletableFuture.runAsync(() -> {
+            if (!abandoned.get()) {
+                smsSender.send(chunk);
+            }
+        }, messageDeliveryExecutor);
+        return CompletableFuture.allOf(email, sms).thenRun(() -> acknowledge(chunk, abandoned));
+    }
+
+    private void acknowledge(List<AccountsMessageDto> chunk, AtomicBoolean abandoned) {
+        if (abandoned.get()) {
+            logger.debug("Not acknowledging {} messages of an abandoned batch", chunk.size());
+            return;
+        }
+        for (AccountsMessageDto accountsMessageDto : chunk) {
+            if (accountsMessageDto.accountNumber() != null) {
+                streamBridge.send(COMMUNICATION_SENT_BINDING, accountsMessageDto.accountNumber());
+            }
+            messageDeduplicator.markDelivered(accountsMessageDto);
+        }
+    }
+}
@@ -1,30 +1,37 @@
 package com.eazybytes.message.functions;
 
+import com.eazybytes.message.dedup.MessageDeduplicator;
+import com.eazybytes.message.delivery.MessageDeliveryPipeline;
 import com.eazybytes.message.dto.AccountsMessageDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.function.Function;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Configuration
 public class MessageFunctions {
     private final Logger logger = LoggerFactory.getLogger(MessageFunctions.class);
 
+    /**
+     * Batch-mode consumer: each poll delivers up to max.poll.records messages, which are sent by
+     * email and SMS in parallel. Acknowledgements are published by the pipeline, not returned.
+     */
     @Bean
-    public Function<AccountsMessageDto, AccountsMessageDto> email() {
-        return accountsMessageDto -> {
-            logger.info("Sending email with details: {}", accountsMessageDto.toString());
-            return accountsMessageDto;
+    public Consumer<List<AccountsMessageDto>> emailsms(MessageDeliveryPipeline messageDeliveryPipeline) {
+        return accountsMessageDtos -> {
+            logger.info("Sending email and sms for {} accounts", accountsMessageDtos.size());
+            messageDeliveryPipeline.deliver(accountsMessageDtos);
         };
     }
 
+    /**
+     * Replays the deliveries recorded by every replica into the local duplicate filter.
+     */
     @Bean
-    public Function<AccountsMessageDto, Long> sms() {
-        return accountsMessageDto -> {
-            logger.info("Sending sms with details: {}", accountsMessageDto);
-            return accountsMessageDto.accountNumber();
-        };
+    public Consumer<String> recordDelivered(MessageDeduplicator messageDeduplicator) {
+        return messageDeduplicator::recordDelivered;
     }
 }
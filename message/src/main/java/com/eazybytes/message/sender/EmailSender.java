@@ -0,0 +1,20 @@
+package com.eazybytes.message.sender;
+
+import com.eazybytes.message.dto.AccountsMessageDto;
+
+import java.util.List;
+
+/**
+ * Delivers account notifications by email. Implementations receive a whole chunk so that
+ * providers with bulk APIs can send it in one request.
+ */
+public interface EmailSender {
+
+    /**
+     * Send an email for every message in the chunk.
+     *
+     * @param messages the messages to deliver
+     * @throws RuntimeException if the chunk could not be delivered
+     */
+    void send(List<AccountsMessageDto> messages);
+}
@@ -0,0 +1,19 @@
+package com.eazybytes.message.sender;
+
+import com.eazybytes.message.dto.AccountsMessageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Local stand-in for a real email provider, used when no other {@link EmailSender} is defined.
+ */
+public class LoggingEmailSender implements EmailSender {
+    private final Logger logger = LoggerFactory.getLogger(LoggingEmailSender.class);
+
+    @Override
+    public void send(List<AccountsMessageDto> messages) {
+        messages.forEach(accountsMessageDto -> logger.info("Sending email with details: {}", accountsMessageDto));
+    }
+}
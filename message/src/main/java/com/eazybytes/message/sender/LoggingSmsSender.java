@@ -0,0 +1,19 @@
+package com.eazybytes.message.sender;
+
+import com.eazybytes.message.dto.AccountsMessageDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Local stand-in for a real SMS gateway, used when no other {@link SmsSender} is defined.
+ */
+public class LoggingSmsSender implements SmsSender {
+    private final Logger logger = LoggerFactory.getLogger(LoggingSmsSender.class);
+
+    @Override
+    public void send(List<AccountsMessageDto> messages) {
+        messages.forEach(accountsMessageDto -> logger.info("Sending sms with details: {}", accountsMessageDto));
+    }
+}
@@ -0,0 +1,62 @@
+package com.eazybytes.message.dedup;
+
+import com.eazybytes.message.config.MessageDedupProperties;
+import com.eazybytes.message.dto.AccountsMessageDto;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static com.eazybytes.message.dedup.MessageDeduplicator.MESSAGE_DELIVERED_BINDING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class MessageDeduplicatorTests {
+
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+
+    @Test
+    void publishesEveryDeliveryKeyedByMessage() {
+        MessageDeduplicator messageDeduplicator = deduplicator();
+        AccountsMessageDto message = message(7L);
+
+        messageDeduplicator.markDelivered(message);
+
+        ArgumentCaptor<Message<?>> published = ArgumentCaptor.captor();
+        verify(streamBridge).send(eq(MESSAGE_DELIVERED_BINDING), published.capture());
+        assertThat(published.getValue().getPayload()).isEqualTo("1900000007:7");
+        assertThat(published.getValue().getHeaders().get(KafkaHeaders.KEY))
+                .isEqualTo("1900000007:7".getBytes(StandardCharsets.UTF_8));
+        assertThat(messageDeduplicator.isDuplicate(message)).isTrue();
+    }
+
+    @Test
+    void replayedDeliveriesAreDroppedAfterARestart() {
+        MessageDeduplicator beforeRestart = deduplicator();
+        beforeRestart.markDelivered(message(1L));
+        ArgumentCaptor<Message<?>> published = ArgumentCaptor.captor();
+        verify(streamBridge).send(eq(MESSAGE_DELIVERED_BINDING), published.capture());
+
+        MessageDeduplicator afterRestart = deduplicator();
+        afterRestart.recordDelivered((String) published.getValue().getPayload());
+
+        assertThat(afterRestart.removeDuplicates(List.of(message(1L), message(2L)))).containsExactly(message(2L));
+    }
+
+    private MessageDeduplicator deduplicator() {
+        return new MessageDeduplicator(new MessageDedupProperties(Duration.ofMinutes(10), 1000, 0.001, 1000),
+                streamBridge);
+    }
+
+    private static AccountsMessageDto message(Long eventId) {
+        return new AccountsMessageDto(1_900_000_000L + eventId, "Madan Reddy", "tutor@eazybytes.com",
+                "9876543210", eventId);
+    }
+}
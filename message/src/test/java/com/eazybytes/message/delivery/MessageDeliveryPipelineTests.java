@@ -0,0 +1,95 @@
+package com.eazybytes.message.delivery;
+
+import com.eazybytes.message.config.MessageDedupProperties;
+import com.eazybytes.message.config.MessageDeliveryProperties;
+import com.eazybytes.message.dedup.MessageDeduplicator;
+import com.eazybytes.message.dto.AccountsMessageDto;
+import com.eazybytes.message.sender.EmailSender;
+import com.eazybytes.message.sender.LoggingEmailSender;
+import com.eazybytes.message.sender.LoggingSmsSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.stream.function.StreamBridge;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static com.eazybytes.message.delivery.MessageDeliveryPipeline.COMMUNICATION_SENT_BINDING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MessageDeliveryPipelineTests {
+
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final MessageDeduplicator messageDeduplicator = new MessageDeduplicator(
+            new MessageDedupProperties(Duration.ofMinutes(10), 1000, 0.001, 1000), streamBridge);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void acknowledgesEveryDeliveredMessageOnce() {
+        MessageDeliveryPipeline pipeline = pipeline(new LoggingEmailSender(), Duration.ofSeconds(5));
+        List<AccountsMessageDto> batch = messages(5);
+
+        pipeline.deliver(batch);
+        pipeline.deliver(batch);
+
+        for (AccountsMessageDto message : batch) {
+            verify(streamBridge, times(1)).send(COMMUNICATION_SENT_BINDING, message.accountNumber());
+        }
+    }
+
+    @Test
+    void doesNotAcknowledgeChunksThatCompleteAfterTheDeadline() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sent = new CountDownLatch(1);
+        EmailSender slowEmailSender = messages -> {
+            try {
+                // CompletableFuture.cancel(true) does not interrupt, so this runs past the deadline
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            new LoggingEmailSender().send(messages);
+            sent.countDown();
+        };
+        MessageDeliveryPipeline pipeline = pipeline(slowEmailSender, Duration.ofMillis(100));
+        List<AccountsMessageDto> batch = messages(2);
+
+        assertThatIllegalStateException().isThrownBy(() -> pipeline.deliver(batch));
+        release.countDown();
+        assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        verify(streamBridge, never()).send(eq(COMMUNICATION_SENT_BINDING), any());
+        assertThat(messageDeduplicator.removeDuplicates(batch)).isEqualTo(batch);
+    }
+
+    private MessageDeliveryPipeline pipeline(EmailSender emailSender, Duration timeout) {
+        return new MessageDeliveryPipeline(emailSender, new LoggingSmsSender(), streamBridge, executor,
+                new MessageDeliveryProperties(2, 4, timeout), messageDeduplicator);
+    }
+
+    private static List<AccountsMessageDto> messages(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> new AccountsMessageDto(1_900_000_000L + i, "Madan Reddy", "tutor@eazybytes.com",
+                        "9876543210", i))
+                .toList();
+    }
+}